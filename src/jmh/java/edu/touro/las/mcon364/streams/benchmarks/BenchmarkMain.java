@@ -0,0 +1,39 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Entry point of target/benchmarks.jar.
+ *
+ * Accepts the usual JMH command line and always attaches the GC profiler, so
+ * every run reports throughput, average latency and allocation rate
+ * (gc.alloc.rate and gc.alloc.rate.norm).
+ *
+ * Examples:
+ *   java -jar target/benchmarks.jar StreamHomeworkBenchmark -p lineItems=1000,100000
+ *   java -jar target/benchmarks.jar -l
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        boolean hasGcProfiler = cli.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName())
+                        || profiler.getKlass().equals("gc"));
+        if (!hasGcProfiler) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
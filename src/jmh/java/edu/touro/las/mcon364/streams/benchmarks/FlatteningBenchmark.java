@@ -0,0 +1,88 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.exercises.Gradebook;
+import edu.touro.las.mcon364.streams.exercises.RunningStats;
+import edu.touro.las.mcon364.streams.homework.OrderSpliterators;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Flattening orders into line items and students into grades: flatMap,
+ * which builds a nested stream per element, against mapMulti and the
+ * OrderSpliterators item spliterator, which push the elements straight
+ * downstream.
+ *
+ * BenchmarkMain attaches the GC profiler; gc.alloc.rate.norm (bytes per
+ * operation) shows the per-order and per-student allocation, e.g.
+ *   java -jar target/benchmarks.jar FlatteningBenchmark -p size=1000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatteningBenchmark {
+
+    // Line items, and grades in the gradebook
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private List<CustomerOrder> orders;
+    private int[] itemOffsets;
+    private Gradebook gradebook;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> products = SyntheticData.products(size, 1);
+        orders = SyntheticData.orders(products, size, 2);
+        itemOffsets = OrderSpliterators.itemOffsets(orders);
+        gradebook = Gradebook.of(SyntheticData.gradebook(size, 3));
+    }
+
+    // Orders -> line items
+
+    @Benchmark
+    public long itemsFlatMap() {
+        return orders.stream()
+                .flatMap(order -> order.items().stream())
+                .mapToLong(OrderItem::quantity)
+                .sum();
+    }
+
+    @Benchmark
+    public long itemsMapMulti() {
+        return orders.stream()
+                .<OrderItem>mapMulti(OrderSpliterators::expandItems)
+                .mapToLong(OrderItem::quantity)
+                .sum();
+    }
+
+    @Benchmark
+    public long itemsSpliterator() {
+        return OrderSpliterators.items(orders, itemOffsets, orders.size(), false)
+                .mapToLong(OrderItem::quantity)
+                .sum();
+    }
+
+    // Students -> grades
+
+    @Benchmark
+    public RunningStats gradesFlatMap() {
+        return IntStream.range(0, gradebook.size())
+                .flatMap(gradebook::grades)
+                .collect(RunningStats::new, RunningStats::accept, RunningStats::combine);
+    }
+
+    @Benchmark
+    public RunningStats gradesMapMulti() {
+        return IntStream.range(0, gradebook.size())
+                .mapMulti(gradebook::forEachGrade)
+                .collect(RunningStats::new, RunningStats::accept, RunningStats::combine);
+    }
+}
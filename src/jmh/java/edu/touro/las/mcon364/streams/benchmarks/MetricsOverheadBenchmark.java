@@ -0,0 +1,45 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording one call in QueryMetrics: a trivial body run directly
+ * versus through QueryMetrics.time. The difference is the per-call
+ * overhead every StreamHomework and StreamExercise query pays.
+ *
+ *   java -jar target/benchmarks.jar MetricsOverheadBenchmark
+ * Run with -t 4 to see the cost under contention on one query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private final QueryMetrics metrics = new QueryMetrics();
+    private String value = "result";
+
+    @Benchmark
+    public String direct() {
+        return value;
+    }
+
+    /**
+     * The two clock reads alone, the floor of any timing.
+     */
+    @Benchmark
+    public long clockReads() {
+        return System.nanoTime() - System.nanoTime();
+    }
+
+    @Benchmark
+    public String timed() {
+        return metrics.time("getTotalRevenue", 100, () -> value);
+    }
+}
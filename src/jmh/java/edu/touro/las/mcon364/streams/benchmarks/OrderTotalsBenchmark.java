@@ -0,0 +1,77 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares order totals recomputed from the items on every call with the
+ * totals cached in CustomerOrder when the order is built.
+ *
+ * Run with the GC profiler to see the per-query allocations:
+ *   java -jar target/benchmarks.jar OrderTotalsBenchmark -prof gc
+ * and compare gc.alloc.rate.norm (bytes per query) between the two variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalsBenchmark {
+
+    // Orders average two line items each
+    @Param({"1000", "100000"})
+    public int orders;
+
+    private List<CustomerOrder> customerOrders;
+    private StreamHomework hw;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = SyntheticData.products(orders * 2, 1);
+        customerOrders = SyntheticData.orders(products, orders * 2, 2);
+        hw = new StreamHomework(products, customerOrders);
+    }
+
+    /**
+     * The order total as it was computed before it was cached.
+     */
+    private static double recomputedTotal(CustomerOrder order) {
+        return order.items().stream()
+                .mapToDouble(OrderItem::getLineTotal)
+                .sum();
+    }
+
+    @Benchmark
+    public double totalRevenueRecomputed() {
+        return customerOrders.stream()
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .mapToDouble(OrderTotalsBenchmark::recomputedTotal)
+                .sum();
+    }
+
+    @Benchmark
+    public double totalRevenueMemoized() {
+        return hw.getTotalRevenue();
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> monthlyRevenueRecomputed() {
+        return customerOrders.stream()
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .collect(Collectors.groupingBy(order -> YearMonth.from(order.orderDate()),
+                        Collectors.summingDouble(OrderTotalsBenchmark::recomputedTotal)));
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> monthlyRevenueMemoized() {
+        return hw.getMonthlyRevenue();
+    }
+}
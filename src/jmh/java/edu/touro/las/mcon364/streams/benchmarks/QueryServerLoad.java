@@ -0,0 +1,138 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.QueryServer;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of QueryServer on one machine.
+ *
+ * Starts the server on synthetic data, then runs a number of client virtual
+ * threads that each send the next query as soon as the previous answer
+ * arrives, over kept-alive HTTP/1.1 connections. After a warmup it reports
+ * throughput and the latency percentiles of the measured requests.
+ * Not a JMH benchmark: latency under concurrency is what is measured.
+ *
+ * Sets -Dsun.net.httpserver.nodelay=true unless it was given (see QueryServer).
+ *
+ * Usage (after mvn -P benchmarks -DskipTests package):
+ *   java -cp target/benchmarks.jar edu.touro.las.mcon364.streams.benchmarks.QueryServerLoad \
+ *       [clients=64] [seconds=10] [lineItems=100000] [paths=/revenue,/top-customers?n=10,...]
+ */
+public final class QueryServerLoad {
+
+    private static final String DEFAULT_PATHS =
+            "/revenue,/top-customers?n=10,/revenue-by-category,/category-summary,/monthly-revenue";
+    private static final int WARMUP_SECONDS = 3;
+
+    private QueryServerLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int lineItems = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        String[] paths = (args.length > 3 ? args[3] : DEFAULT_PATHS).split(",");
+
+        List<Product> products = SyntheticData.products(lineItems, 1);
+        StreamHomework hw = new StreamHomework(products, SyntheticData.orders(products, lineItems, 2));
+
+        try (QueryServer server = QueryServer.start(hw, 0);
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            List<HttpRequest> requests = Arrays.stream(paths)
+                    .map(path -> HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                            .timeout(Duration.ofSeconds(30)).build())
+                    .toList();
+            System.out.printf("%d clients, %d line items, paths %s%n", clients, lineItems, Arrays.toString(paths));
+
+            run(client, requests, clients, WARMUP_SECONDS);
+            Result result = run(client, requests, clients, seconds);
+            System.out.println(result);
+        }
+    }
+
+    private static Result run(HttpClient client, List<HttpRequest> requests, int clients, int seconds)
+            throws InterruptedException, ExecutionException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> latencies = new ArrayList<>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int first = c;
+                latencies.add(threads.submit(() -> client(client, requests, first, end, errors)));
+            }
+        }
+        long[] all = latencies.stream().map(QueryServerLoad::join).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        return new Result(all, errors.get(), seconds);
+    }
+
+    /**
+     * One client: sends the requests round-robin until the end time, returning the latencies.
+     */
+    private static long[] client(HttpClient client, List<HttpRequest> requests, int first, long end,
+                                 AtomicLong errors) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        for (int r = first; System.nanoTime() < end; r++) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(requests.get(r % requests.size()),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Result(long[] sortedNanos, long errors, int seconds) {
+
+        double percentileMillis(double p) {
+            if (sortedNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d errors=%d throughput=%.0f req/s  p50=%.3f ms  p90=%.3f ms  "
+                            + "p99=%.3f ms  p99.9=%.3f ms  max=%.3f ms",
+                    sortedNanos.length, errors, (double) sortedNanos.length / seconds,
+                    percentileMillis(0.50), percentileMillis(0.90), percentileMillis(0.99),
+                    percentileMillis(0.999), percentileMillis(1.0));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.OrderColumns;
+import edu.touro.las.mcon364.streams.homework.RevenueKernels;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and vector revenue kernels, on their own and behind
+ * the OrderColumns queries, with StreamHomework's row-based query as the
+ * baseline.
+ *
+ * The forks start with the incubator module so the vector kernels load:
+ *   java -jar target/benchmarks.jar RevenueKernelsBenchmark
+ * If the platform has no usable vector shape the "vector" variants fall
+ * back to scalar and the setup prints a warning.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RevenueKernelsBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int lineItems;
+
+    private double[] price;
+    private int[] quantity;
+    private boolean[] include;
+
+    private RevenueKernels vector;
+    private StreamHomework hw;
+    private OrderColumns scalarColumns;
+    private OrderColumns vectorColumns;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(1);
+        price = new double[lineItems];
+        quantity = new int[lineItems];
+        include = new boolean[lineItems];
+        for (int i = 0; i < lineItems; i++) {
+            price[i] = 10 + random.nextInt(99_000) / 100.0;
+            quantity[i] = 1 + random.nextInt(5);
+            include[i] = random.nextInt(10) < 6;
+        }
+        vector = RevenueKernels.vector().orElseGet(() -> {
+            System.err.println("jdk.incubator.vector not usable; vector variants run scalar");
+            return RevenueKernels.scalar();
+        });
+
+        List<Product> products = SyntheticData.products(lineItems, 1);
+        hw = new StreamHomework(products, SyntheticData.orders(products, lineItems, 2));
+        scalarColumns = hw.toColumns().withKernels(RevenueKernels.scalar());
+        vectorColumns = scalarColumns.withKernels(vector);
+    }
+
+    @Benchmark
+    public double sumScalar() {
+        return RevenueKernels.scalar().sum(price, quantity, include, 0, lineItems);
+    }
+
+    @Benchmark
+    public double sumVector() {
+        return vector.sum(price, quantity, include, 0, lineItems);
+    }
+
+    @Benchmark
+    public double totalRevenueRows() {
+        return hw.getTotalRevenue();
+    }
+
+    @Benchmark
+    public double totalRevenueScalar() {
+        return scalarColumns.getTotalRevenue();
+    }
+
+    @Benchmark
+    public double totalRevenueVector() {
+        return vectorColumns.getTotalRevenue();
+    }
+
+    @Benchmark
+    public Map<String, CategorySummary> categorySummaryScalar() {
+        return scalarColumns.getCategorySummary();
+    }
+
+    @Benchmark
+    public Map<String, CategorySummary> categorySummaryVector() {
+        return vectorColumns.getCategorySummary();
+    }
+}
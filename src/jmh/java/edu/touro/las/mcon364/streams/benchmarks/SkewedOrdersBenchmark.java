@@ -0,0 +1,100 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.OrderSpliterators;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel efficiency on skewed orders (see SyntheticData.skewedOrders):
+ * splitting the order list by order count versus splitting on item weight.
+ *
+ * - *FlatMap: the list's own spliterator with flatMap(order -> items.stream())
+ * - *Weighted: OrderSpliterators, which halves items instead of orders
+ * - homework*: the StreamHomework queries, which use the weighted splits
+ *
+ * Parallel efficiency is the sequential time divided by (parallel time x cores);
+ * compare it between the FlatMap and Weighted variants, e.g.
+ *   java -jar target/benchmarks.jar SkewedOrdersBenchmark -p lineItems=1000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkewedOrdersBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int lineItems;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private List<CustomerOrder> orders;
+    private int[] itemOffsets;
+    private StreamHomework hw;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> products = SyntheticData.products(lineItems, 1);
+        orders = SyntheticData.skewedOrders(products, lineItems, 2);
+        itemOffsets = OrderSpliterators.itemOffsets(orders);
+        hw = new StreamHomework(products, orders);
+        hw.setParallel(parallel);
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByCategoryFlatMap() {
+        return (parallel ? orders.parallelStream() : orders.stream())
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().category(),
+                        Collectors.summingDouble(OrderItem::getLineTotal)));
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByCategoryWeighted() {
+        return OrderSpliterators.orderPositions(itemOffsets, orders.size(), parallel)
+                .mapToObj(orders::get)
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().category(),
+                        Collectors.summingDouble(OrderItem::getLineTotal)));
+    }
+
+    @Benchmark
+    public Map<String, Integer> quantitySoldFlatMap() {
+        return (parallel ? orders.parallelStream() : orders.stream())
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().id(),
+                        Collectors.summingInt(OrderItem::quantity)));
+    }
+
+    @Benchmark
+    public Map<String, Integer> quantitySoldWeighted() {
+        return OrderSpliterators.items(orders, itemOffsets, orders.size(), parallel)
+                .collect(Collectors.groupingBy(item -> item.product().id(),
+                        Collectors.summingInt(OrderItem::quantity)));
+    }
+
+    @Benchmark
+    public Map<String, Double> homeworkRevenueByCategory() {
+        return hw.getRevenueByCategory();
+    }
+
+    @Benchmark
+    public List<Product> homeworkTopSellingProducts() {
+        return hw.getTopSellingProducts(10);
+    }
+
+    @Benchmark
+    public Map<String, CategorySummary> homeworkCategorySummary() {
+        return hw.getCategorySummary();
+    }
+}
@@ -0,0 +1,130 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.exercises.RunningStats;
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per implemented query in StreamExercise, over synthetic
+ * gradebooks with 10^3 to 10^8 grades (five per student), each run
+ * sequentially and in parallel. The bonus queries still marked TODO are left
+ * out until they are implemented.
+ *
+ * The largest sizes need a big heap, e.g.
+ *   java -jar target/benchmarks.jar StreamExerciseBenchmark -jvmArgs -Xmx24g
+ * Use -p grades=1000,100000 for a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamExerciseBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    public int grades;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private StreamExercise exercise;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        exercise = new StreamExercise(SyntheticData.gradebook(grades, 3));
+        exercise.setParallel(parallel);
+    }
+
+    // PART 1: Basic Queries
+
+    @Benchmark
+    public List<String> getAllStudentNames() {
+        return exercise.getAllStudentNames();
+    }
+
+    @Benchmark
+    public long countStudents() {
+        return exercise.countStudents();
+    }
+
+    @Benchmark
+    public List<Integer> getStudentGrades() {
+        return exercise.getStudentGrades("Student0");
+    }
+
+    // PART 2: Grade Analysis
+
+    @Benchmark
+    public double calculateAverage() {
+        return exercise.calculateAverage("Student0");
+    }
+
+    @Benchmark
+    public List<Integer> getAllGradesFlattened() {
+        return exercise.getAllGradesFlattened();
+    }
+
+    @Benchmark
+    public int findHighestGrade() {
+        return exercise.findHighestGrade();
+    }
+
+    @Benchmark
+    public int findLowestGrade() {
+        return exercise.findLowestGrade();
+    }
+
+    @Benchmark
+    public long getTotalGradeCount() {
+        return exercise.getTotalGradeCount();
+    }
+
+    // PART 3: Filtering and Grouping
+
+    @Benchmark
+    public List<String> getPassingStudents() {
+        return exercise.getPassingStudents(80);
+    }
+
+    @Benchmark
+    public List<String> getFailingStudents() {
+        return exercise.getFailingStudents(70);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> groupByPerformance() {
+        return exercise.groupByPerformance();
+    }
+
+    @Benchmark
+    public Map<String, Double> getStudentAverages() {
+        return exercise.getStudentAverages();
+    }
+
+    @Benchmark
+    public String findTopPerformer() {
+        return exercise.findTopPerformer();
+    }
+
+    // BONUS
+
+    @Benchmark
+    public String findMostConsistentStudent() {
+        return exercise.findMostConsistentStudent();
+    }
+
+    @Benchmark
+    public double calculateStandardDeviation() {
+        return exercise.calculateStandardDeviation("Student0");
+    }
+
+    @Benchmark
+    public RunningStats getClassStatistics() {
+        return exercise.getClassStatistics();
+    }
+}
@@ -0,0 +1,169 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.CategoryStatistics;
+import edu.touro.las.mcon364.streams.homework.HyperLogLog;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per implemented query in StreamHomework, over synthetic
+ * orders with 10^3 to 10^8 line items, each run sequentially and in parallel.
+ * The bonus queries still marked TODO are left out until they are implemented.
+ *
+ * The largest sizes need a big heap, e.g.
+ *   java -jar target/benchmarks.jar StreamHomeworkBenchmark -jvmArgs -Xmx24g
+ * Use -p lineItems=1000,100000 for a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamHomeworkBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    public int lineItems;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private StreamHomework hw;
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> products = SyntheticData.products(lineItems, 1);
+        hw = new StreamHomework(products, SyntheticData.orders(products, lineItems, 2));
+        hw.setParallel(parallel);
+        rangeStart = LocalDate.of(2023, 2, 1);
+        rangeEnd = LocalDate.of(2023, 2, 28);
+    }
+
+    // PART 1: Basic Analytics
+
+    @Benchmark
+    public double getTotalRevenue() {
+        return hw.getTotalRevenue();
+    }
+
+    @Benchmark
+    public long getOrderCount() {
+        return hw.getOrderCount(OrderStatus.DELIVERED);
+    }
+
+    @Benchmark
+    public Set<Product> getUniqueProducts() {
+        return hw.getUniqueProducts();
+    }
+
+    @Benchmark
+    public double getAverageOrderValue() {
+        return hw.getAverageOrderValue();
+    }
+
+    // PART 2: Customer Analytics
+
+    @Benchmark
+    public Map<String, Double> getRevenueByCustomer() {
+        return hw.getRevenueByCustomer();
+    }
+
+    @Benchmark
+    public List<String> getTopCustomers() {
+        return hw.getTopCustomers(10);
+    }
+
+    @Benchmark
+    public Map<String, Long> getCustomerOrderCounts() {
+        return hw.getCustomerOrderCounts();
+    }
+
+    @Benchmark
+    public List<String> getCustomersWithMultipleOrders() {
+        return hw.getCustomersWithMultipleOrders();
+    }
+
+    // PART 3: Product Analytics
+
+    @Benchmark
+    public Map<String, Double> getRevenueByCategory() {
+        return hw.getRevenueByCategory();
+    }
+
+    @Benchmark
+    public List<Product> getTopSellingProducts() {
+        return hw.getTopSellingProducts(10);
+    }
+
+    @Benchmark
+    public Map<String, Integer> getProductQuantitySold() {
+        return hw.getProductQuantitySold();
+    }
+
+    @Benchmark
+    public Map<String, CategorySummary> getCategorySummary() {
+        return hw.getCategorySummary();
+    }
+
+    @Benchmark
+    public Map<String, CategoryStatistics> getCategoryStatistics() {
+        return hw.getCategoryStatistics();
+    }
+
+    // PART 4: Time-Based Analytics
+
+    @Benchmark
+    public Map<YearMonth, List<CustomerOrder>> getOrdersByMonth() {
+        return hw.getOrdersByMonth();
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> getMonthlyRevenue() {
+        return hw.getMonthlyRevenue();
+    }
+
+    @Benchmark
+    public List<CustomerOrder> getOrdersInDateRange() {
+        return hw.getOrdersInDateRange(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Long> getDailyOrderCounts() {
+        return hw.getDailyOrderCounts();
+    }
+
+    @Benchmark
+    public Map<LocalDate, Double> getDailyRevenue() {
+        return hw.getDailyRevenue();
+    }
+
+    // APPROXIMATE DISTINCT COUNTS
+
+    @Benchmark
+    public long getApproximateUniqueProductCount() {
+        return hw.getApproximateUniqueProductCount();
+    }
+
+    @Benchmark
+    public long getApproximateCustomerCount() {
+        return hw.getApproximateCustomerCount();
+    }
+
+    @Benchmark
+    public Map<YearMonth, HyperLogLog> getCustomerSketchesByMonth() {
+        return hw.getCustomerSketchesByMonth();
+    }
+
+    @Benchmark
+    public Map<String, HyperLogLog> getProductSketchesByCategory() {
+        return hw.getProductSketchesByCategory();
+    }
+}
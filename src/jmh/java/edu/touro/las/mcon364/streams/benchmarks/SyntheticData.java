@@ -0,0 +1,117 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Deterministic synthetic data with the same shape as the sample data in
+ * StreamHomework and StreamExercise, scaled to a requested number of line items.
+ *
+ * Orders: 1-3 items each, about one customer per two orders, dates spread over
+ * three years and statuses weighted like the sample (60% delivered, 20% shipped,
+ * 10% pending, 10% cancelled). Gradebooks: five grades (40-100) per student.
+ */
+public final class SyntheticData {
+
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Footwear", "Accessories"};
+    private static final OrderStatus[] STATUS_WEIGHTS = {
+            OrderStatus.DELIVERED, OrderStatus.DELIVERED, OrderStatus.DELIVERED,
+            OrderStatus.DELIVERED, OrderStatus.DELIVERED, OrderStatus.DELIVERED,
+            OrderStatus.SHIPPED, OrderStatus.SHIPPED, OrderStatus.PENDING, OrderStatus.CANCELLED
+    };
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+    private static final int DAYS = 3 * 365;
+    private static final int GRADES_PER_STUDENT = 5;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Product catalog sized for the given number of line items (at least 10 products).
+     */
+    public static List<Product> products(int lineItems, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int count = Math.max(10, lineItems / 1000);
+        List<Product> products = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            products.add(new Product(String.format("P%03d", p + 1), "Product " + (p + 1),
+                    CATEGORIES[p % CATEGORIES.length], 10 + random.nextInt(99_000) / 100.0));
+        }
+        return products;
+    }
+
+    /**
+     * Orders holding exactly the given number of line items in total.
+     */
+    public static List<CustomerOrder> orders(List<Product> products, int lineItems, long seed) {
+        return orders(products, lineItems, seed, 3);
+    }
+
+    /**
+     * Orders holding exactly the given number of line items, with 1 to maxItemsPerOrder items each.
+     */
+    public static List<CustomerOrder> orders(List<Product> products, int lineItems, long seed, int maxItemsPerOrder) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int customers = Math.max(6, lineItems / 4);
+        List<CustomerOrder> orders = new ArrayList<>(lineItems * 2 / (maxItemsPerOrder + 1) + 1);
+        int remaining = lineItems;
+        while (remaining > 0) {
+            int itemCount = Math.min(remaining, 1 + random.nextInt(maxItemsPerOrder));
+            List<OrderItem> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(new OrderItem(products.get(random.nextInt(products.size())), 1 + random.nextInt(3)));
+            }
+            remaining -= itemCount;
+            orders.add(new CustomerOrder(String.format("O%03d", orders.size() + 1),
+                    String.format("C%03d", random.nextInt(customers) + 1),
+                    List.copyOf(items),
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)),
+                    STATUS_WEIGHTS[random.nextInt(STATUS_WEIGHTS.length)]));
+        }
+        return orders;
+    }
+
+    /**
+     * Skewed orders holding exactly the given number of line items: one order
+     * in a thousand is "bulk" and holds a share of about half the items, the
+     * rest have 1-3 items. The bulk orders sit in the second half of the list,
+     * so splitting the list by order count leaves one half with most of the work.
+     */
+    public static List<CustomerOrder> skewedOrders(List<Product> products, int lineItems, long seed) {
+        int bulkItems = lineItems / 2;
+        List<CustomerOrder> orders = new ArrayList<>(orders(products, lineItems - bulkItems, seed));
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        int bulkOrders = Math.max(1, orders.size() / 1000);
+        for (int b = 0; b < bulkOrders; b++) {
+            int itemCount = bulkItems / bulkOrders + (b < bulkItems % bulkOrders ? 1 : 0);
+            List<OrderItem> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(new OrderItem(products.get(random.nextInt(products.size())), 1 + random.nextInt(3)));
+            }
+            int position = orders.size() / 2 + random.nextInt(orders.size() / 2 + 1);
+            orders.add(position, new CustomerOrder(String.format("B%03d", b + 1), "C001",
+                    List.copyOf(items), FIRST_DAY.plusDays(random.nextInt(DAYS)), OrderStatus.DELIVERED));
+        }
+        return orders;
+    }
+
+    /**
+     * Gradebook holding about the given number of grades, five per student.
+     */
+    public static Map<String, List<Integer>> gradebook(int grades, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int students = Math.max(1, grades / GRADES_PER_STUDENT);
+        Map<String, List<Integer>> gradebook = new LinkedHashMap<>(students * 2);
+        for (int s = 0; s < students; s++) {
+            Integer[] row = new Integer[GRADES_PER_STUDENT];
+            int base = 40 + random.nextInt(55);
+            for (int g = 0; g < GRADES_PER_STUDENT; g++) {
+                row[g] = Math.min(100, base + random.nextInt(11));
+            }
+            gradebook.put("Student" + s, List.of(row));
+        }
+        return gradebook;
+    }
+}
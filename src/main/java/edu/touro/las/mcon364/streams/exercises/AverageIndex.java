@@ -0,0 +1,109 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Students sorted by average grade.
+ *
+ * Threshold queries binary-search the sorted averages and return the
+ * matching slice, so "average >= t" or "average < t" costs O(log n + result)
+ * instead of a scan over every student. Students with equal averages keep
+ * their gradebook order.
+ *
+ * The index is a snapshot; {@link Gradebook} drops it when grades change.
+ */
+public final class AverageIndex {
+
+    // Student positions in ascending order of average, and those averages
+    private final int[] students;
+    private final double[] averages;
+
+    private AverageIndex(int[] students, double[] averages) {
+        this.students = students;
+        this.averages = averages;
+    }
+
+    /**
+     * Builds the index from the gradebook's cached statistics.
+     * The sort runs in parallel when requested.
+     */
+    static AverageIndex of(Gradebook gradebook, boolean parallelSort) {
+        int size = gradebook.size();
+        double[] byStudent = new double[size];
+        Integer[] order = new Integer[size];
+        for (int s = 0; s < size; s++) {
+            byStudent[s] = gradebook.stats(s).average();
+            order[s] = s;
+        }
+        Comparator<Integer> byAverage = Comparator.comparingDouble(s -> byStudent[s]);
+        if (parallelSort) {
+            Arrays.parallelSort(order, byAverage);
+        } else {
+            Arrays.sort(order, byAverage);
+        }
+
+        int[] students = new int[size];
+        double[] averages = new double[size];
+        for (int i = 0; i < size; i++) {
+            students[i] = order[i];
+            averages[i] = byStudent[order[i]];
+        }
+        return new AverageIndex(students, averages);
+    }
+
+    /**
+     * Number of students indexed.
+     */
+    public int size() {
+        return students.length;
+    }
+
+    /**
+     * Students with average >= threshold, highest average first.
+     */
+    public IntStream atLeast(double threshold) {
+        int from = firstAtLeast(threshold);
+        int last = students.length - 1;
+        return IntStream.range(0, students.length - from).map(i -> students[last - i]);
+    }
+
+    /**
+     * Students with average < threshold, lowest average first.
+     */
+    public IntStream below(double threshold) {
+        return Arrays.stream(students, 0, firstAtLeast(threshold));
+    }
+
+    /**
+     * Students with from <= average < to, lowest average first.
+     */
+    public IntStream range(double from, double to) {
+        int start = firstAtLeast(from);
+        return Arrays.stream(students, start, Math.max(start, firstAtLeast(to)));
+    }
+
+    /**
+     * Number of students with average >= threshold.
+     */
+    public int countAtLeast(double threshold) {
+        return students.length - firstAtLeast(threshold);
+    }
+
+    /**
+     * Position in the sorted arrays of the first average >= threshold.
+     */
+    private int firstAtLeast(double threshold) {
+        int low = 0;
+        int high = averages.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (averages[mid] < threshold) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,272 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Gradebook backed by primitive int arrays: one int[] of grades per student,
+ * with students numbered 0..size()-1 in insertion order.
+ *
+ * Queries read the grades as IntStreams, so nothing is boxed. The grades
+ * handed out as List<Integer> are read-only views over the arrays; since
+ * grades are 0-100, boxing a grade returns a cached Integer.
+ *
+ * Per-student statistics ({@link StudentStats}) are computed on first use
+ * and cached; addGrade updates them in O(1) and setGrades drops them.
+ * The {@link AverageIndex} over all averages is dropped on any change.
+ * Queries may run in parallel; updates must not run concurrently with queries.
+ */
+public final class Gradebook {
+
+    /** Highest grade; grades are 0..MAX_GRADE, which the counting sort relies on. */
+    public static final int MAX_GRADE = 100;
+
+    private String[] names;
+    private int[][] grades;
+    // Cached statistics per student; null until computed or after a change.
+    // Parallel queries may compute the same entry twice, which is harmless.
+    private StudentStats[] stats;
+    private int size;
+    // Students sorted by average; null until built or after any change
+    private AverageIndex averageIndex;
+    private final Map<String, Integer> index;
+    private int gradeCount;
+
+    private Gradebook(String[] names, int[][] grades) {
+        this.names = names;
+        this.grades = grades;
+        this.stats = new StudentStats[names.length];
+        this.size = names.length;
+        this.index = new HashMap<>(names.length * 2);
+        for (int s = 0; s < names.length; s++) {
+            index.put(names[s], s);
+            gradeCount += grades[s].length;
+        }
+    }
+
+    /**
+     * Copies a name → grades map, keeping its iteration order.
+     *
+     * @throws IllegalArgumentException if a grade is outside 0-100
+     */
+    public static Gradebook of(Map<String, List<Integer>> gradebook) {
+        String[] names = new String[gradebook.size()];
+        int[][] grades = new int[gradebook.size()][];
+        int s = 0;
+        for (Map.Entry<String, List<Integer>> entry : gradebook.entrySet()) {
+            names[s] = entry.getKey();
+            grades[s] = toArray(entry.getKey(), entry.getValue());
+            s++;
+        }
+        return new Gradebook(names, grades);
+    }
+
+    /**
+     * Takes ownership of already-parsed arrays; names must be distinct.
+     *
+     * @throws IllegalArgumentException if a grade is outside 0-100
+     */
+    static Gradebook of(String[] names, int[][] grades) {
+        for (int s = 0; s < names.length; s++) {
+            for (int grade : grades[s]) {
+                checkGrade(names[s], grade);
+            }
+        }
+        return new Gradebook(names, grades);
+    }
+
+    /**
+     * Number of students.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Total number of grades across all students.
+     */
+    public int gradeCount() {
+        return gradeCount;
+    }
+
+    /**
+     * Position of the student, or -1 if there is no such student.
+     */
+    public int indexOf(String name) {
+        return index.getOrDefault(name, -1);
+    }
+
+    /**
+     * Name of the student at the given position.
+     */
+    public String name(int student) {
+        return names[student];
+    }
+
+    /**
+     * Grades of the student at the given position.
+     */
+    public IntStream grades(int student) {
+        return Arrays.stream(grades[student]);
+    }
+
+    /**
+     * Passes each grade of the student to the action, without creating a
+     * stream; fits IntStream.mapMulti.
+     */
+    public void forEachGrade(int student, IntConsumer action) {
+        for (int grade : grades[student]) {
+            action.accept(grade);
+        }
+    }
+
+    /**
+     * Number of grades of the student at the given position.
+     */
+    public int gradeCount(int student) {
+        return grades[student].length;
+    }
+
+    /**
+     * Cached statistics of the student at the given position.
+     */
+    public StudentStats stats(int student) {
+        StudentStats result = stats[student];
+        if (result == null) {
+            result = StudentStats.of(grades[student]);
+            stats[student] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Index of the students by average, built on first use and kept until
+     * any grade changes. The sort runs in parallel when requested.
+     */
+    public AverageIndex averageIndex(boolean parallelSort) {
+        if (averageIndex == null) {
+            averageIndex = AverageIndex.of(this, parallelSort);
+        }
+        return averageIndex;
+    }
+
+    /**
+     * Read-only list of the grades of the student at the given position.
+     * Updates replace the array rather than writing into it, so the list
+     * keeps showing the grades as they were when it was taken.
+     */
+    public List<Integer> gradeList(int student) {
+        return view(grades[student]);
+    }
+
+    /**
+     * Every grade, sorted ascending, as a read-only view. Uses a counting
+     * sort over 0-100, so it costs O(grades) with no comparisons.
+     */
+    public List<Integer> sortedGrades() {
+        int[] counts = new int[MAX_GRADE + 1];
+        for (int s = 0; s < size; s++) {
+            for (int grade : grades[s]) {
+                counts[grade]++;
+            }
+        }
+        int[] sorted = new int[gradeCount];
+        int position = 0;
+        for (int grade = 0; grade <= MAX_GRADE; grade++) {
+            Arrays.fill(sorted, position, position + counts[grade], grade);
+            position += counts[grade];
+        }
+        return view(sorted);
+    }
+
+    // =========================================================================
+    // UPDATES
+    // =========================================================================
+
+    /**
+     * Replaces a student's grades, adding the student if they are new.
+     *
+     * @throws IllegalArgumentException if a grade is outside 0-100
+     */
+    public void setGrades(String name, List<Integer> newGrades) {
+        int[] values = toArray(name, newGrades);
+        int student = indexOf(name);
+        if (student < 0) {
+            student = addStudent(name);
+        }
+        gradeCount += values.length - grades[student].length;
+        grades[student] = values;
+        stats[student] = null;
+        averageIndex = null;
+    }
+
+    /**
+     * Appends one grade to a student's grades, adding the student if they are new.
+     *
+     * @throws IllegalArgumentException if the grade is outside 0-100
+     */
+    public void addGrade(String name, int grade) {
+        checkGrade(name, grade);
+        int student = indexOf(name);
+        if (student < 0) {
+            student = addStudent(name);
+        }
+        int[] current = grades[student];
+        int[] values = Arrays.copyOf(current, current.length + 1);
+        values[current.length] = grade;
+        grades[student] = values;
+        gradeCount++;
+        if (stats[student] != null) {
+            stats[student] = stats[student].plus(grade);
+        }
+        averageIndex = null;
+    }
+
+    private int addStudent(String name) {
+        if (size == names.length) {
+            int capacity = Math.max(16, size * 2);
+            names = Arrays.copyOf(names, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            stats = Arrays.copyOf(stats, capacity);
+        }
+        names[size] = name;
+        grades[size] = new int[0];
+        index.put(name, size);
+        return size++;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private static int[] toArray(String name, List<Integer> grades) {
+        int[] result = new int[grades.size()];
+        int i = 0;
+        for (int grade : grades) {
+            checkGrade(name, grade);
+            result[i++] = grade;
+        }
+        return result;
+    }
+
+    private static void checkGrade(String name, int grade) {
+        if (grade < 0 || grade > MAX_GRADE) {
+            throw new IllegalArgumentException("Grade out of range for " + name + ": " + grade);
+        }
+    }
+
+    private static List<Integer> view(int[] values) {
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int i) {
+                return values[i];
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+}
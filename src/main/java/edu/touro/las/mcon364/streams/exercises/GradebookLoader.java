@@ -0,0 +1,346 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Loads a gradebook from a CSV file of {@code student,grade} rows.
+ *
+ * The file is split into chunks that end on line boundaries and each chunk
+ * is memory-mapped with {@link FileChannel#map} and parsed straight from the
+ * bytes: grades are parsed as ints in place, and a student's name becomes a
+ * String only the first time it shows up in a chunk. Chunks are parsed in
+ * parallel and merged in file order, so every student keeps their grades
+ * in the order they appear in the file and students are numbered in order
+ * of first appearance.
+ *
+ * A first line whose grade is not a number, or that has no comma at all
+ * (e.g. just {@code student}), is taken as a header and skipped. Blank
+ * lines and Windows line endings are accepted.
+ *
+ * Example:
+ *   GradebookLoader.Result result = GradebookLoader.load(Path.of("grades.csv"), true);
+ *   StreamExercise exercise = new StreamExercise(result.gradebook());
+ *   System.out.println(result);   // rows, bytes and throughput
+ */
+public final class GradebookLoader {
+
+    /** Target chunk size; each chunk is mapped and parsed on its own. */
+    static final int DEFAULT_CHUNK_SIZE = 32 << 20;
+
+    /**
+     * The loaded gradebook and how long loading took.
+     */
+    public record Result(Gradebook gradebook, long rows, long bytes, long nanos) {
+
+        public double rowsPerSecond() {
+            return rows * 1e9 / Math.max(1, nanos);
+        }
+
+        public double megabytesPerSecond() {
+            return bytes / (1024.0 * 1024.0) * 1e9 / Math.max(1, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Loaded %,d rows (%,.1f MB) for %,d students in %,.1f ms: %,.0f rows/s, %,.1f MB/s",
+                    rows, bytes / (1024.0 * 1024.0), gradebook.size(), nanos / 1e6,
+                    rowsPerSecond(), megabytesPerSecond());
+        }
+    }
+
+    private GradebookLoader() {
+    }
+
+    /**
+     * Loads the file, parsing its chunks in parallel when requested.
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if a row is malformed or a grade is outside 0-100
+     */
+    public static Result load(Path file, boolean parallel) {
+        return load(file, parallel, DEFAULT_CHUNK_SIZE);
+    }
+
+    static Result load(Path file, boolean parallel, int chunkSize) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size, chunkSize);
+            IntStream chunks = IntStream.range(0, bounds.length - 1);
+            List<Chunk> parsed = (parallel ? chunks.parallel() : chunks)
+                    .mapToObj(c -> parse(channel, bounds[c], bounds[c + 1], c == 0))
+                    .toList();
+            Gradebook gradebook = merge(parsed);
+            long rows = parsed.stream().mapToLong(chunk -> chunk.rows).sum();
+            return new Result(gradebook, rows, size, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + file, e);
+        }
+    }
+
+    // =========================================================================
+    // CHUNKING
+    // =========================================================================
+
+    /**
+     * Chunk start offsets plus the file size; every chunk but the last ends
+     * right after a newline.
+     */
+    private static long[] chunkBounds(FileChannel channel, long size, int chunkSize) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long position = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        while (size - position > chunkSize) {
+            long next = position + chunkSize;
+            long newline = -1;
+            while (newline < 0 && next < size) {
+                probe.clear();
+                int read = channel.read(probe, next);
+                for (int i = 0; i < read && newline < 0; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = next + i;
+                    }
+                }
+                next += Math.max(read, 0);
+            }
+            if (newline < 0 || newline + 1 >= size) {
+                break;
+            }
+            position = newline + 1;
+            bounds.add(position);
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // =========================================================================
+    // PARSING
+    // =========================================================================
+
+    /**
+     * Students of one chunk in order of first appearance, with their grades.
+     * Names are looked up by their bytes in an open-addressing table, so a
+     * row that repeats a known student allocates nothing.
+     */
+    private static final class Chunk {
+        final MappedByteBuffer buffer;
+        long rows;
+        int students;
+        int[] nameOffset = new int[64];
+        int[] nameLength = new int[64];
+        int[] nameHash = new int[64];
+        int[][] grades = new int[64][];
+        int[] gradeCount = new int[64];
+        int[] table = new int[128];   // student + 1, 0 = empty
+
+        Chunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void add(int offset, int length, int hash, int grade) {
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            while (table[slot] != 0) {
+                int student = table[slot] - 1;
+                if (nameHash[student] == hash && sameName(student, offset, length)) {
+                    append(student, grade);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int student = students++;
+            if (student == nameOffset.length) {
+                grow();
+            }
+            nameOffset[student] = offset;
+            nameLength[student] = length;
+            nameHash[student] = hash;
+            grades[student] = new int[4];
+            table[slot] = student + 1;
+            append(student, grade);
+            if (students * 2 > table.length) {
+                rehash();
+            }
+        }
+
+        String name(int student) {
+            byte[] bytes = new byte[nameLength[student]];
+            buffer.get(nameOffset[student], bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int[] grades(int student) {
+            return Arrays.copyOf(grades[student], gradeCount[student]);
+        }
+
+        private boolean sameName(int student, int offset, int length) {
+            if (nameLength[student] != length) {
+                return false;
+            }
+            int other = nameOffset[student];
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(other + i) != buffer.get(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void append(int student, int grade) {
+            int[] studentGrades = grades[student];
+            if (gradeCount[student] == studentGrades.length) {
+                studentGrades = Arrays.copyOf(studentGrades, studentGrades.length * 2);
+                grades[student] = studentGrades;
+            }
+            studentGrades[gradeCount[student]++] = grade;
+            rows++;
+        }
+
+        private void grow() {
+            int capacity = nameOffset.length * 2;
+            nameOffset = Arrays.copyOf(nameOffset, capacity);
+            nameLength = Arrays.copyOf(nameLength, capacity);
+            nameHash = Arrays.copyOf(nameHash, capacity);
+            grades = Arrays.copyOf(grades, capacity);
+            gradeCount = Arrays.copyOf(gradeCount, capacity);
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int student = 0; student < students; student++) {
+                int slot = nameHash[student] & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = student + 1;
+            }
+        }
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end, boolean first) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Chunk chunk = new Chunk(buffer);
+        int limit = buffer.limit();
+        int position = 0;
+        boolean header = first;
+        while (position < limit) {
+            // Name: up to the comma, hashed as we go
+            int lineStart = position;
+            int hash = 0;
+            while (position < limit && buffer.get(position) != ',' && buffer.get(position) != '\n') {
+                hash = 31 * hash + buffer.get(position);
+                position++;
+            }
+            int nameEnd = position;
+            if (position >= limit || buffer.get(position) == '\n') {
+                boolean blank = nameEnd == lineStart || (nameEnd == lineStart + 1 && buffer.get(lineStart) == '\r');
+                if (!blank && !header) {
+                    throw malformed(start + lineStart, "missing ','");
+                }
+                position++;   // blank line or header without a grade column
+                header = false;
+                continue;
+            }
+            position++;   // comma
+
+            // Grade: digits up to the end of the line
+            int grade = 0;
+            int digits = 0;
+            while (position < limit && buffer.get(position) >= '0' && buffer.get(position) <= '9') {
+                grade = grade * 10 + (buffer.get(position) - '0');
+                if (grade > Gradebook.MAX_GRADE) {
+                    throw malformed(start + lineStart, "grade out of range");
+                }
+                digits++;
+                position++;
+            }
+            if (position < limit && buffer.get(position) == '\r') {
+                position++;
+            }
+            boolean lineEnd = position >= limit || buffer.get(position) == '\n';
+            if (digits == 0 || !lineEnd) {
+                if (header) {
+                    while (position < limit && buffer.get(position) != '\n') {
+                        position++;
+                    }
+                    position++;
+                    header = false;
+                    continue;
+                }
+                throw malformed(start + lineStart, "grade is not a number");
+            }
+            position++;   // newline
+            header = false;
+            chunk.add(lineStart, nameEnd - lineStart, hash, grade);
+        }
+        return chunk;
+    }
+
+    private static IllegalArgumentException malformed(long offset, String problem) {
+        return new IllegalArgumentException("Malformed row at byte " + offset + ": " + problem);
+    }
+
+    // =========================================================================
+    // MERGING
+    // =========================================================================
+
+    /**
+     * Concatenates the chunks in file order; a student seen in several
+     * chunks gets their grades in chunk order.
+     */
+    private static Gradebook merge(List<Chunk> chunks) {
+        Map<String, Integer> index = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<List<int[]>> parts = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            for (int student = 0; student < chunk.students; student++) {
+                String name = chunk.name(student);
+                Integer position = index.get(name);
+                if (position == null) {
+                    position = names.size();
+                    index.put(name, position);
+                    names.add(name);
+                    parts.add(new ArrayList<>(1));
+                }
+                parts.get(position).add(chunk.grades(student));
+            }
+        }
+        int[][] grades = new int[names.size()][];
+        for (int s = 0; s < grades.length; s++) {
+            List<int[]> studentParts = parts.get(s);
+            if (studentParts.size() == 1) {
+                grades[s] = studentParts.get(0);
+            } else {
+                grades[s] = studentParts.stream().flatMapToInt(Arrays::stream).toArray();
+            }
+        }
+        return Gradebook.of(names.toArray(String[]::new), grades);
+    }
+
+    /**
+     * Loads the file given as the first argument and prints the throughput.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: GradebookLoader <grades.csv>");
+            System.exit(2);
+        }
+        System.out.println(load(Path.of(args[0]), true));
+    }
+}
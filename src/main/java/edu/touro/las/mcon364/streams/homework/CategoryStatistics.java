@@ -0,0 +1,189 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * Revenue and quantity statistics for a group of line items, accumulated in
+ * one pass into primitive fields.
+ *
+ * Besides the CategorySummary totals it tracks the number of line items and
+ * orders and the smallest, largest and mean line total. Like
+ * DoubleSummaryStatistics it is a mutable accumulator; instances merge with
+ * {@link #combine(CategoryStatistics)}, so the collectors below work on
+ * parallel streams. Instances are not thread-safe.
+ *
+ * Example:
+ *   Map<String, CategorySummary> summary = orders.stream()
+ *           .<OrderItem>mapMulti(OrderSpliterators::expandItems)
+ *           .collect(groupingBy(item -> item.product().category(), CategoryStatistics.summary()));
+ */
+public final class CategoryStatistics {
+
+    private double revenue;
+    private long quantity;
+    private long itemCount;
+    private long orderCount;
+    private double minLineTotal = Double.POSITIVE_INFINITY;
+    private double maxLineTotal = Double.NEGATIVE_INFINITY;
+
+    // Order whose items are currently being added; counts each order once
+    private CustomerOrder lastOrder;
+
+    /**
+     * Creates empty statistics.
+     */
+    public CategoryStatistics() {
+    }
+
+    /**
+     * Collector over line items producing the full statistics.
+     * The order count stays 0 because items do not know their order;
+     * use {@link #byCategory(Predicate)} when it is needed.
+     */
+    public static Collector<OrderItem, ?, CategoryStatistics> summarizing() {
+        return Collector.of(
+                CategoryStatistics::new,
+                CategoryStatistics::accept,
+                CategoryStatistics::combine,
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Collector over line items producing a CategorySummary.
+     * Drop-in downstream for groupingBy.
+     */
+    public static Collector<OrderItem, ?, CategorySummary> summary() {
+        return Collector.of(
+                CategoryStatistics::new,
+                CategoryStatistics::accept,
+                CategoryStatistics::combine,
+                CategoryStatistics::toSummary,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Collector over orders producing statistics per product category,
+     * including how many of the matching orders contain the category.
+     */
+    public static Collector<CustomerOrder, ?, Map<String, CategoryStatistics>> byCategory(
+            Predicate<? super CustomerOrder> filter) {
+        return Collector.of(
+                HashMap::new,
+                (Map<String, CategoryStatistics> map, CustomerOrder order) -> {
+                    if (filter.test(order)) {
+                        List<OrderItem> items = order.items();
+                        for (int i = 0; i < items.size(); i++) {
+                            OrderItem item = items.get(i);
+                            map.computeIfAbsent(item.product().category(), c -> new CategoryStatistics())
+                                    .accept(order, item);
+                        }
+                    }
+                },
+                (left, right) -> {
+                    right.forEach((category, stats) -> left.merge(category, stats, CategoryStatistics::combine));
+                    return left;
+                },
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    // =========================================================================
+    // ACCUMULATION
+    // =========================================================================
+
+    /**
+     * Adds one line item.
+     */
+    public void accept(OrderItem item) {
+        double lineTotal = item.getLineTotal();
+        revenue += lineTotal;
+        quantity += item.quantity();
+        itemCount++;
+        minLineTotal = Math.min(minLineTotal, lineTotal);
+        maxLineTotal = Math.max(maxLineTotal, lineTotal);
+    }
+
+    /**
+     * Adds one line item of the given order. Each order is counted once as
+     * long as its items are added together.
+     */
+    public void accept(CustomerOrder order, OrderItem item) {
+        if (order != lastOrder) {
+            lastOrder = order;
+            orderCount++;
+        }
+        accept(item);
+    }
+
+    /**
+     * Merges statistics gathered over a disjoint set of orders into this one.
+     */
+    public CategoryStatistics combine(CategoryStatistics other) {
+        revenue += other.revenue;
+        quantity += other.quantity;
+        itemCount += other.itemCount;
+        orderCount += other.orderCount;
+        minLineTotal = Math.min(minLineTotal, other.minLineTotal);
+        maxLineTotal = Math.max(maxLineTotal, other.maxLineTotal);
+        return this;
+    }
+
+    // =========================================================================
+    // RESULTS
+    // =========================================================================
+
+    /**
+     * Revenue and quantity as a CategorySummary.
+     */
+    public CategorySummary toSummary() {
+        return new CategorySummary(revenue, (int) quantity);
+    }
+
+    public double getTotalRevenue() {
+        return revenue;
+    }
+
+    public long getTotalQuantity() {
+        return quantity;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Smallest line total, or +Infinity if no items were added.
+     */
+    public double getMinLineTotal() {
+        return minLineTotal;
+    }
+
+    /**
+     * Largest line total, or -Infinity if no items were added.
+     */
+    public double getMaxLineTotal() {
+        return maxLineTotal;
+    }
+
+    /**
+     * Mean line total, or 0 if no items were added.
+     */
+    public double getAverageLineTotal() {
+        return itemCount == 0 ? 0.0 : revenue / itemCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CategoryStatistics{revenue=%f, quantity=%d, items=%d, orders=%d, min=%f, avg=%f, max=%f}",
+                revenue, quantity, itemCount, orderCount, minLineTotal, getAverageLineTotal(), maxLineTotal);
+    }
+}
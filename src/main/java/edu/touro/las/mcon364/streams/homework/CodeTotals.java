@@ -0,0 +1,143 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Per-code totals of a dictionary-encoded aggregation: for every code the
+ * number of contributions, a double sum (e.g. revenue) and a long sum
+ * (e.g. units). Codes come from a {@link Dictionary}, so the totals live in
+ * primitive arrays indexed by code instead of a HashMap keyed by string.
+ */
+public final class CodeTotals {
+
+    // Below this many codes, parallel threads fill their own arrays and merge;
+    // above it they share atomic arrays so memory stays O(codes)
+    private static final int SHARED_THRESHOLD = 1 << 12;
+
+    /**
+     * Receives one contribution for a code.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void add(int code, double value, long units);
+    }
+
+    private final long[] counts;
+    private final double[] sums;
+    private final long[] units;
+
+    private CodeTotals(int codes) {
+        this(new long[codes], new double[codes], new long[codes]);
+    }
+
+    private CodeTotals(long[] counts, double[] sums, long[] units) {
+        this.counts = counts;
+        this.sums = sums;
+        this.units = units;
+    }
+
+    /**
+     * Runs the body for every position 0..n-1 and totals what it adds to the sink.
+     *
+     * @param codes    number of codes (dictionary size)
+     * @param n        number of positions (e.g. orders)
+     * @param parallel whether to visit the positions with a parallel stream
+     * @param body     adds the contributions of one position to the sink
+     */
+    public static CodeTotals collect(int codes, int n, boolean parallel, ObjIntConsumer<Sink> body) {
+        if (!parallel) {
+            CodeTotals totals = new CodeTotals(codes);
+            Sink sink = totals::add;
+            for (int i = 0; i < n; i++) {
+                body.accept(sink, i);
+            }
+            return totals;
+        }
+        return collect(codes, IntStream.range(0, n).parallel(), body);
+    }
+
+    /**
+     * Runs the body for every position of the stream and totals what it adds
+     * to the sink. The stream decides how the positions are split and whether
+     * they are visited in parallel.
+     */
+    public static CodeTotals collect(int codes, IntStream positions, ObjIntConsumer<Sink> body) {
+        if (!positions.isParallel()) {
+            CodeTotals totals = new CodeTotals(codes);
+            Sink sink = totals::add;
+            positions.forEach(i -> body.accept(sink, i));
+            return totals;
+        }
+        if (codes <= SHARED_THRESHOLD) {
+            return positions.collect(
+                    () -> new CodeTotals(codes),
+                    (totals, i) -> body.accept(totals::add, i),
+                    CodeTotals::merge);
+        }
+        AtomicLongArray counts = new AtomicLongArray(codes);
+        AtomicLongArray sums = new AtomicLongArray(codes);
+        AtomicLongArray units = new AtomicLongArray(codes);
+        Sink sink = (code, value, unitCount) -> {
+            counts.incrementAndGet(code);
+            if (value != 0) {
+                sums.accumulateAndGet(code, Double.doubleToRawLongBits(value), CodeTotals::addBits);
+            }
+            units.addAndGet(code, unitCount);
+        };
+        positions.forEach(i -> body.accept(sink, i));
+
+        CodeTotals totals = new CodeTotals(codes);
+        for (int code = 0; code < codes; code++) {
+            totals.counts[code] = counts.get(code);
+            totals.sums[code] = Double.longBitsToDouble(sums.get(code));
+            totals.units[code] = units.get(code);
+        }
+        return totals;
+    }
+
+    /**
+     * Number of codes.
+     */
+    public int size() {
+        return counts.length;
+    }
+
+    /**
+     * Number of contributions for the code; 0 means the code was never seen.
+     */
+    public long count(int code) {
+        return counts[code];
+    }
+
+    public double sum(int code) {
+        return sums[code];
+    }
+
+    public long units(int code) {
+        return units[code];
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private void add(int code, double value, long unitCount) {
+        counts[code]++;
+        sums[code] += value;
+        units[code] += unitCount;
+    }
+
+    private void merge(CodeTotals other) {
+        for (int code = 0; code < counts.length; code++) {
+            counts[code] += other.counts[code];
+            sums[code] += other.sums[code];
+            units[code] += other.units[code];
+        }
+    }
+
+    private static long addBits(long current, long delta) {
+        return Double.doubleToRawLongBits(Double.longBitsToDouble(current) + Double.longBitsToDouble(delta));
+    }
+}
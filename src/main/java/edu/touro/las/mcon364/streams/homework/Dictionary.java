@@ -0,0 +1,65 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.util.*;
+
+/**
+ * Maps keys to dense int codes 0, 1, 2, ... in order of first appearance.
+ *
+ * Aggregations that group by a key can then index a primitive array with
+ * the code instead of hashing the key into a HashMap on every element; the
+ * key is only looked up again (decoded) when the result is returned.
+ * Instances are not thread-safe.
+ *
+ * Example:
+ *   Dictionary<String> customers = new Dictionary<>();
+ *   int c = customers.encode("C001");   // 0
+ *   customers.decode(c);                // "C001"
+ */
+public final class Dictionary<T> {
+
+    private final Map<T, Integer> codes = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    /**
+     * Code of the key, assigning the next free code if the key is new.
+     */
+    public int encode(T key) {
+        Integer code = codes.get(key);
+        if (code == null) {
+            code = values.size();
+            codes.put(key, code);
+            values.add(key);
+        }
+        return code;
+    }
+
+    /**
+     * Code of the key, or -1 if it has not been encoded.
+     */
+    public int indexOf(T key) {
+        return codes.getOrDefault(key, -1);
+    }
+
+    /**
+     * Key for the given code.
+     *
+     * @throws IndexOutOfBoundsException if the code was never assigned
+     */
+    public T decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Number of distinct keys; codes run from 0 to size() - 1.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * All keys, indexed by code.
+     */
+    public List<T> values() {
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,83 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * How the {@link StreamHomework} analytics run their stream pipelines.
+ *
+ * - {@link #sequential()}: plain sequential streams (the default)
+ * - {@link #commonPool()}: parallel streams on the common ForkJoinPool
+ * - {@link #pool(ForkJoinPool)}: parallel streams on a dedicated pool, so
+ *   analytics do not compete with other users of the common pool
+ */
+public final class ExecutionMode {
+
+    private static final ExecutionMode SEQUENTIAL = new ExecutionMode(false, null);
+    private static final ExecutionMode COMMON_POOL = new ExecutionMode(true, null);
+
+    private final boolean parallel;
+    private final ForkJoinPool pool;
+
+    private ExecutionMode(boolean parallel, ForkJoinPool pool) {
+        this.parallel = parallel;
+        this.pool = pool;
+    }
+
+    /**
+     * Sequential streams on the calling thread.
+     */
+    public static ExecutionMode sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Parallel streams on the common ForkJoinPool.
+     */
+    public static ExecutionMode commonPool() {
+        return COMMON_POOL;
+    }
+
+    /**
+     * Parallel streams on the given pool.
+     */
+    public static ExecutionMode pool(ForkJoinPool pool) {
+        return new ExecutionMode(true, Objects.requireNonNull(pool, "pool"));
+    }
+
+    /**
+     * True for the parallel modes.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Stream over the collection, sequential or parallel depending on the mode.
+     */
+    public <T> Stream<T> stream(Collection<T> source) {
+        return parallel ? source.parallelStream() : source.stream();
+    }
+
+    /**
+     * Runs a query. In the dedicated pool mode the query is submitted to the
+     * pool, so its parallel stages fork into that pool instead of the common one.
+     */
+    public <R> R execute(Supplier<R> query) {
+        if (pool == null || ForkJoinTask.getPool() == pool) {
+            return query.get();
+        }
+        return pool.submit(query::get).join();
+    }
+
+    @Override
+    public String toString() {
+        if (!parallel) {
+            return "sequential";
+        }
+        return pool == null ? "commonPool" : "pool(parallelism=" + pool.getParallelism() + ")";
+    }
+}
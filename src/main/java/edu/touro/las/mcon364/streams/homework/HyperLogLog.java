@@ -0,0 +1,253 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * HyperLogLog sketch estimating how many distinct values were added, in a
+ * fixed amount of memory.
+ *
+ * A sketch of precision p keeps 2^p one-byte registers (4 KB at the default
+ * p = 12) no matter how many values it sees, and its estimate has a relative
+ * standard error of about 1.04 / sqrt(2^p) (1.6% at p = 12). Small counts are
+ * corrected with linear counting, so they come out close to exact.
+ *
+ * Sketches of the same precision merge into the sketch of the union of their
+ * inputs, so parallel substreams can each fill their own sketch, and sketches
+ * per time bucket or group can be combined later (e.g. months into a
+ * quarter). Like CategoryStatistics, instances are mutable accumulators and
+ * not thread-safe.
+ *
+ * Example: distinct customers per month
+ *   Map<YearMonth, HyperLogLog> byMonth = orders.stream().collect(groupingBy(
+ *           order -> YearMonth.from(order.orderDate()),
+ *           HyperLogLog.collector(12, CustomerOrder::customerId)));
+ *   long q1 = byMonth.get(jan).copy().merge(byMonth.get(feb)).merge(byMonth.get(mar)).estimate();
+ */
+public final class HyperLogLog {
+
+    /** Smallest supported precision: 16 registers. */
+    public static final int MIN_PRECISION = 4;
+
+    /** Largest supported precision: 256 KB of registers. */
+    public static final int MAX_PRECISION = 18;
+
+    /** 4096 registers, 4 KB, about 1.6% standard error. */
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int precision;
+    // Per register, the highest rank (leading zeros + 1) among the hashes routed to it
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch with 2^precision registers.
+     *
+     * @throws IllegalArgumentException if precision is outside [MIN_PRECISION, MAX_PRECISION]
+     */
+    public HyperLogLog(int precision) {
+        this.precision = checkPrecision(precision);
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(HyperLogLog other) {
+        this.precision = other.precision;
+        this.registers = other.registers.clone();
+    }
+
+    /**
+     * Returns the precision if it is supported.
+     *
+     * @throws IllegalArgumentException otherwise
+     */
+    public static int checkPrecision(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ": " + precision);
+        }
+        return precision;
+    }
+
+    /**
+     * Collector adding the key of every element to one sketch; parallel
+     * substreams fill their own sketches, which are then merged.
+     * Drop-in downstream for groupingBy.
+     */
+    public static <T> Collector<T, ?, HyperLogLog> collector(
+            int precision, Function<? super T, ? extends CharSequence> key) {
+        checkPrecision(precision);
+        return Collector.of(
+                () -> new HyperLogLog(precision),
+                (sketch, element) -> sketch.add(key.apply(element)),
+                HyperLogLog::merge,
+                Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Like {@link #collector}, finishing with the estimated number of distinct keys.
+     */
+    public static <T> Collector<T, ?, Long> counting(
+            int precision, Function<? super T, ? extends CharSequence> key) {
+        checkPrecision(precision);
+        return Collector.of(
+                () -> new HyperLogLog(precision),
+                (sketch, element) -> sketch.add(key.apply(element)),
+                HyperLogLog::merge,
+                HyperLogLog::estimate,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // =========================================================================
+    // ACCUMULATION
+    // =========================================================================
+
+    /**
+     * Adds a value, hashed over its characters (equal strings count once).
+     */
+    public void add(CharSequence value) {
+        addHash(hash(value));
+    }
+
+    /**
+     * Adds a numeric value, e.g. a dictionary code.
+     */
+    public void add(long value) {
+        addHash(mix(value));
+    }
+
+    /**
+     * Adds a value by its 64-bit hash. The hash must be well mixed; every
+     * bit is used.
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the remaining bits; the marker bit caps it at 64 - precision + 1
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Merges a sketch of the same precision into this one, which then
+     * estimates the union of both inputs.
+     *
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("cannot merge precision " + other.precision
+                    + " into precision " + precision);
+        }
+        byte[] theirs = other.registers;
+        for (int i = 0; i < registers.length; i++) {
+            if (theirs[i] > registers[i]) {
+                registers[i] = theirs[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * An independent copy, for merging without changing this sketch.
+     */
+    public HyperLogLog copy() {
+        return new HyperLogLog(this);
+    }
+
+    // =========================================================================
+    // RESULTS
+    // =========================================================================
+
+    /**
+     * Estimated number of distinct values added (0 for an empty sketch).
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate while many registers are empty
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Memory held by the registers.
+     */
+    public int sizeInBytes() {
+        return registers.length;
+    }
+
+    /**
+     * Expected relative standard error of {@link #estimate()}, 1.04 / sqrt(2^precision).
+     */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HyperLogLog{precision=%d, estimate=%d, error=%.2f%%}",
+                precision, estimate(), 100 * relativeStandardError());
+    }
+
+    // =========================================================================
+    // HASHING
+    // =========================================================================
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with {@link #mix(long)}.
+     * String.hashCode has only 32 bits, which collide too often for large counts.
+     */
+    static long hash(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3's 64-bit finalizer: every input bit affects every output bit.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,171 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.RecordComponent;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+/**
+ * Minimal JSON writer for the query results served by {@link QueryServer}.
+ *
+ * Writes straight to an Appendable, so a large result never exists as one
+ * String. Handles null, booleans, numbers (NaN and infinities as null),
+ * strings and enums, maps, collections, and records as objects of their
+ * components. Anything else is written as its toString.
+ *
+ * A map whose keys are all strings, numbers, booleans, characters, enums or
+ * java.time values becomes an object keyed by String.valueOf(key) (e.g.
+ * 2024-01 for a YearMonth). Any other key (a record such as Product) has no
+ * usable string form, so such a map becomes an array of
+ * {"key": ..., "value": ...} objects with the key written as JSON.
+ */
+final class Json {
+
+    // Record components by class, looked up once
+    private static final ClassValue<RecordComponent[]> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected RecordComponent[] computeValue(Class<?> type) {
+            return type.getRecordComponents();
+        }
+    };
+
+    private Json() {
+    }
+
+    /**
+     * The value as a JSON string.
+     */
+    static String toJson(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(value, out);
+        return out.toString();
+    }
+
+    /**
+     * Writes the value as JSON.
+     *
+     * @throws UncheckedIOException if the output fails
+     */
+    static void write(Object value, Appendable out) {
+        try {
+            value(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean scalarKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof CharSequence || key instanceof Number || key instanceof Boolean
+                    || key instanceof Character || key instanceof Enum<?> || key instanceof TemporalAccessor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void object(Map<?, ?> map, Appendable out) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            string(String.valueOf(entry.getKey()), out);
+            out.append(':');
+            value(entry.getValue(), out);
+        }
+        out.append('}');
+    }
+
+    private static void entries(Map<?, ?> map, Appendable out) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            out.append("{\"key\":");
+            value(entry.getKey(), out);
+            out.append(",\"value\":");
+            value(entry.getValue(), out);
+            out.append('}');
+        }
+        out.append(']');
+    }
+
+    private static void value(Object value, Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long) {
+            out.append(value.toString());
+        } else if (value instanceof Number number) {
+            double d = number.doubleValue();
+            out.append(Double.isFinite(d) ? Double.toString(d) : "null");
+        } else if (value instanceof Map<?, ?> map) {
+            if (scalarKeys(map)) {
+                object(map, out);
+            } else {
+                entries(map, out);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                value(element, out);
+            }
+            out.append(']');
+        } else if (value instanceof Record) {
+            record(value, out);
+        } else {
+            string(value.toString(), out);
+        }
+    }
+
+    private static void record(Object value, Appendable out) throws IOException {
+        out.append('{');
+        RecordComponent[] components = COMPONENTS.get(value.getClass());
+        for (int c = 0; c < components.length; c++) {
+            if (c > 0) {
+                out.append(',');
+            }
+            string(components[c].getName(), out);
+            out.append(':');
+            try {
+                value(components[c].getAccessor().invoke(value), out);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read " + components[c], e);
+            }
+        }
+        out.append('}');
+    }
+
+    private static void string(String s, Appendable out) throws IOException {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,287 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cached query results ("materialized views") for {@link StreamHomework}.
+ *
+ * Results are grouped by view (the query name) and stored per argument list,
+ * together with the part of the data they depend on ({@link Dependency}).
+ * When an order is added or changes status only the views that change can
+ * depend on are visited, and within them only the entries whose scope
+ * covers the order (e.g. the date ranges containing its date); the next call
+ * rebuilds them. For example, moving an order from PENDING to SHIPPED keeps
+ * every revenue view, because revenue only counts DELIVERED orders.
+ *
+ * Each view keeps at most maxEntriesPerView argument lists, evicting the
+ * least recently used, so parameterized views (date ranges, top n) stay
+ * bounded however many distinct arguments callers pass.
+ *
+ * Cached results are shared between callers, so they are handed out
+ * read-only. Per-view counters record hits, misses (first computation),
+ * rebuilds (computation after an invalidation), invalidations and evictions.
+ *
+ * StreamHomework reads views under its read lock and invalidates them
+ * under its write lock; two readers missing the same view at once both
+ * compute it and one result is kept.
+ *
+ * Example:
+ *   MaterializedViews views = hw.enableMaterializedViews();
+ *   hw.getRevenueByCustomer();   // miss
+ *   hw.getTopCustomers(3);       // miss, built from the cached revenue view
+ *   views.stats("revenueByCustomer");
+ */
+public final class MaterializedViews {
+
+    /**
+     * Which order changes can change a view.
+     */
+    public enum Dependency {
+        /** The set of orders (e.g. order counts): changes when an order is added. */
+        ORDERS,
+        /** The DELIVERED orders (revenue): changes when one is added or an order enters or leaves DELIVERED. */
+        DELIVERED,
+        /** The orders including their status (views returning orders): changes on every update. */
+        ORDER_STATUS;
+
+        /**
+         * True if replacing before with after (before is null for an added order)
+         * can change a view with this dependency.
+         */
+        boolean affectedBy(CustomerOrder before, CustomerOrder after) {
+            return switch (this) {
+                case ORDERS -> before == null;
+                case DELIVERED -> before == null
+                        ? after.status() == OrderStatus.DELIVERED
+                        : (before.status() == OrderStatus.DELIVERED) != (after.status() == OrderStatus.DELIVERED);
+                case ORDER_STATUS -> true;
+            };
+        }
+    }
+
+    /**
+     * Counters of one view, over all its argument combinations.
+     */
+    public record ViewStats(long hits, long misses, long rebuilds, long invalidations, long evictions) {
+
+        /**
+         * Fraction of calls answered from the cache, 0.0 before any call.
+         */
+        public double hitRate() {
+            long calls = hits + misses + rebuilds;
+            return calls == 0 ? 0.0 : (double) hits / calls;
+        }
+    }
+
+    /** Argument lists kept per view unless another limit is given. */
+    public static final int DEFAULT_MAX_ENTRIES_PER_VIEW = 64;
+
+    // Value of an invalidated entry; its key stays so the next call counts as a rebuild
+    private static final Object STALE = new Object();
+
+    /**
+     * One cached result; scope is null when every order can affect it.
+     */
+    private record Entry(Object value, Predicate<CustomerOrder> scope) {
+
+        boolean stale() {
+            return value == STALE;
+        }
+    }
+
+    /**
+     * The entries of one view by argument list, least recently used first,
+     * with the view's counters. Guarded by its own monitor.
+     */
+    private final class View {
+        final Dependency dependency;
+        final Map<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder rebuilds = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        View(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        synchronized Entry get(List<Object> arguments) {
+            return entries.get(arguments);
+        }
+
+        /**
+         * Stores the value unless another caller stored a live one first, and
+         * evicts the least recently used entry when over the limit.
+         */
+        synchronized Object put(List<Object> arguments, Object value, Predicate<CustomerOrder> scope) {
+            Entry current = entries.get(arguments);
+            if (current != null && !current.stale()) {
+                return current.value();
+            }
+            entries.put(arguments, new Entry(value, scope));
+            if (entries.size() > maxEntriesPerView) {
+                Iterator<List<Object>> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+            return value;
+        }
+
+        /**
+         * Marks the entries covering the changed order stale, or every entry
+         * if order is null.
+         */
+        synchronized void invalidate(CustomerOrder order) {
+            for (Map.Entry<List<Object>, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                if (!entry.stale() && (entry.scope() == null || order == null || entry.scope().test(order))) {
+                    e.setValue(new Entry(STALE, null));
+                    invalidations.increment();
+                }
+            }
+        }
+
+        synchronized int live() {
+            int live = 0;
+            for (Entry entry : entries.values()) {
+                if (!entry.stale()) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        ViewStats snapshot() {
+            return new ViewStats(hits.sum(), misses.sum(), rebuilds.sum(), invalidations.sum(), evictions.sum());
+        }
+    }
+
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+    private final int maxEntriesPerView;
+
+    MaterializedViews() {
+        this(DEFAULT_MAX_ENTRIES_PER_VIEW);
+    }
+
+    /**
+     * @throws IllegalArgumentException if maxEntriesPerView is not positive
+     */
+    MaterializedViews(int maxEntriesPerView) {
+        if (maxEntriesPerView <= 0) {
+            throw new IllegalArgumentException("maxEntriesPerView must be positive: " + maxEntriesPerView);
+        }
+        this.maxEntriesPerView = maxEntriesPerView;
+    }
+
+    /**
+     * The cached result of the view for these arguments, computing and
+     * caching it if needed. Maps and lists are cached read-only.
+     */
+    <T> T get(String view, Dependency dependency, List<Object> arguments, Supplier<T> query) {
+        return get(view, dependency, null, arguments, query);
+    }
+
+    /**
+     * Like {@link #get(String, Dependency, List, Supplier)} for a result that
+     * only depends on the orders scope accepts (e.g. those in a date range);
+     * changes to other orders keep it.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String name, Dependency dependency, Predicate<CustomerOrder> scope, List<Object> arguments,
+              Supplier<T> query) {
+        View view = views.computeIfAbsent(name, n -> new View(dependency));
+        Entry entry = view.get(arguments);
+        if (entry != null && !entry.stale()) {
+            view.hits.increment();
+            return (T) entry.value();
+        }
+        (entry == null ? view.misses : view.rebuilds).increment();
+        return (T) view.put(arguments, readOnly(query.get()), scope);
+    }
+
+    /**
+     * Drops the views an added order can change.
+     */
+    void orderAdded(CustomerOrder order) {
+        invalidate(null, order);
+    }
+
+    /**
+     * Drops the views a status change can change.
+     */
+    void statusChanged(CustomerOrder before, CustomerOrder after) {
+        invalidate(before, after);
+    }
+
+    /**
+     * Drops every cached view; the counters are kept.
+     */
+    public void clear() {
+        views.values().forEach(view -> view.invalidate(null));
+    }
+
+    /**
+     * Number of cached results.
+     */
+    public int size() {
+        return views.values().stream().mapToInt(View::live).sum();
+    }
+
+    /**
+     * Most argument lists kept per view.
+     */
+    public int maxEntriesPerView() {
+        return maxEntriesPerView;
+    }
+
+    /**
+     * Counters of the named view; all zero if it was never called.
+     */
+    public ViewStats stats(String view) {
+        View found = views.get(view);
+        return found == null ? new ViewStats(0, 0, 0, 0, 0) : found.snapshot();
+    }
+
+    /**
+     * Counters of every view that was called, by view name.
+     */
+    public Map<String, ViewStats> stats() {
+        Map<String, ViewStats> result = new TreeMap<>();
+        views.forEach((name, view) -> result.put(name, view.snapshot()));
+        return result;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    /**
+     * Visits only the views whose dependency the change touches.
+     */
+    private void invalidate(CustomerOrder before, CustomerOrder after) {
+        for (View view : views.values()) {
+            if (view.dependency.affectedBy(before, after)) {
+                view.invalidate(after);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T readOnly(T value) {
+        if (value instanceof Map<?, ?> map) {
+            return (T) Collections.unmodifiableMap(map);
+        }
+        if (value instanceof List<?> list) {
+            return (T) Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+}
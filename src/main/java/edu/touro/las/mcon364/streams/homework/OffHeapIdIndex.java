@@ -0,0 +1,186 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Off-heap map from string ids to record numbers, for {@link OffHeapOrders}.
+ *
+ * The ids are appended as UTF-16 text to direct "text" segments of
+ * {@value #TEXT_SEGMENT_BYTES} bytes, each entry laid out as
+ * [record number int][length int][chars], and an open-addressing hash
+ * table in one more direct buffer holds the text offset (+1, 0 = empty) of
+ * every entry, probed linearly. Neither the ids nor the table put an object
+ * on the heap per entry; the table is rebuilt at twice the size from the
+ * stored text when it gets half full.
+ *
+ * Not thread-safe; OffHeapOrders only changes it from add.
+ */
+final class OffHeapIdIndex {
+
+    static final int TEXT_SEGMENT_BYTES = 1 << 20;
+    private static final int TEXT_SEGMENT_SHIFT = 20;
+    private static final int TEXT_SEGMENT_MASK = TEXT_SEGMENT_BYTES - 1;
+    private static final int ENTRY_HEADER = 8;
+
+    // Largest table whose byte offsets fit in an int
+    private static final int MAX_SLOTS = 1 << 27;
+
+    private ByteBuffer[] text = new ByteBuffer[4];
+    private long textSize;
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+
+    OffHeapIdIndex() {
+        slots = allocate(16 * Long.BYTES);
+        mask = 15;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The record number stored for the id, or -1 if it is absent.
+     */
+    int indexOf(String id) {
+        for (int slot = spread(id.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            long ref = slots.getLong(slot * Long.BYTES);
+            if (ref == 0) {
+                return -1;
+            }
+            if (matches(ref - 1, id)) {
+                return segment(ref - 1).getInt(offset(ref - 1));
+            }
+        }
+    }
+
+    /**
+     * Stores the id with its record number; the caller checked that it is absent.
+     *
+     * @throws IllegalArgumentException if the id does not fit in one text segment
+     * @throws IllegalStateException if the table cannot grow any further
+     */
+    void put(String id, int number) {
+        int bytes = ENTRY_HEADER + id.length() * Character.BYTES;
+        if (bytes > TEXT_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Id longer than " + (TEXT_SEGMENT_BYTES - ENTRY_HEADER) / 2
+                    + " characters");
+        }
+        if ((size + 1) * 2L > mask + 1) {
+            grow();
+        }
+        long offset = append(id, number, bytes);
+        insert(spread(id.hashCode()), offset);
+        size++;
+    }
+
+    /**
+     * Drops the buffers; the memory goes back once the garbage collector finds them unreachable.
+     */
+    void close() {
+        text = null;
+        slots = null;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private long append(String id, int number, int bytes) {
+        // Entries never straddle two segments
+        if ((textSize & TEXT_SEGMENT_MASK) + bytes > TEXT_SEGMENT_BYTES) {
+            textSize = ((textSize >>> TEXT_SEGMENT_SHIFT) + 1) << TEXT_SEGMENT_SHIFT;
+        }
+        int segment = (int) (textSize >>> TEXT_SEGMENT_SHIFT);
+        if (segment == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        if (text[segment] == null) {
+            text[segment] = allocate(TEXT_SEGMENT_BYTES);
+        }
+        long offset = textSize;
+        ByteBuffer buffer = text[segment];
+        int base = offset(offset);
+        buffer.putInt(base, number);
+        buffer.putInt(base + 4, id.length());
+        for (int c = 0; c < id.length(); c++) {
+            buffer.putChar(base + ENTRY_HEADER + c * Character.BYTES, id.charAt(c));
+        }
+        textSize += bytes;
+        return offset;
+    }
+
+    private void insert(int hash, long offset) {
+        int slot = hash & mask;
+        while (slots.getLong(slot * Long.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots.putLong(slot * Long.BYTES, offset + 1);
+    }
+
+    private void grow() {
+        int capacity = (mask + 1) * 2;
+        if (capacity > MAX_SLOTS) {
+            throw new IllegalStateException("Id index is full (" + size + " ids)");
+        }
+        ByteBuffer old = slots;
+        int oldCapacity = mask + 1;
+        slots = allocate(capacity * Long.BYTES);
+        mask = capacity - 1;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long ref = old.getLong(slot * Long.BYTES);
+            if (ref != 0) {
+                insert(spread(storedHash(ref - 1)), ref - 1);
+            }
+        }
+    }
+
+    private boolean matches(long offset, String id) {
+        ByteBuffer buffer = segment(offset);
+        int base = offset(offset);
+        if (buffer.getInt(base + 4) != id.length()) {
+            return false;
+        }
+        for (int c = 0; c < id.length(); c++) {
+            if (buffer.getChar(base + ENTRY_HEADER + c * Character.BYTES) != id.charAt(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * String.hashCode of the stored id, computed without building the String.
+     */
+    private int storedHash(long offset) {
+        ByteBuffer buffer = segment(offset);
+        int base = offset(offset);
+        int length = buffer.getInt(base + 4);
+        int hash = 0;
+        for (int c = 0; c < length; c++) {
+            hash = 31 * hash + buffer.getChar(base + ENTRY_HEADER + c * Character.BYTES);
+        }
+        return hash;
+    }
+
+    private ByteBuffer segment(long offset) {
+        return text[(int) (offset >>> TEXT_SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long offset) {
+        return (int) (offset & TEXT_SEGMENT_MASK);
+    }
+
+    // Ids like "O000123" differ in the low digits; spread them over the whole table
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
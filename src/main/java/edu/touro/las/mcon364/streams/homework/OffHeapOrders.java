@@ -0,0 +1,401 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Order repository that keeps orders and line items off the Java heap.
+ *
+ * Orders and line items are fixed-width records in direct ByteBuffers
+ * ("segments") of {@value #SEGMENT_RECORDS} records each, so the dataset
+ * adds a handful of large buffers to the heap instead of an object per order
+ * and per item, and the garbage collector never scans it. Order ids live
+ * off-heap as well, in an {@link OffHeapIdIndex} hash table; only the
+ * dictionaries of distinct customers, products and categories stay on the
+ * heap.
+ *
+ * The queries are the shared {@link OrderAnalytics} loops. They stream order
+ * numbers through a {@link Spliterator} that splits at segment boundaries,
+ * and accumulate into primitive arrays indexed by dictionary code
+ * ({@link CodeTotals}), so a query allocates O(codes), not O(items).
+ *
+ * - order record (24 bytes): status ordinal, customer code, epoch day, first
+ *   item, item count, unused
+ * - item record (16 bytes): product code, quantity, unit price
+ *
+ * close() drops the repository's references to its segments and any later
+ * call throws IllegalStateException, but the memory is not freed at that
+ * point: direct buffers go back to the OS only when a garbage collection
+ * finds them unreachable (Java 21 has no supported way to free one
+ * immediately; the java.lang.foreign Arena API is still a preview). Size
+ * -XX:MaxDirectMemorySize for the repositories alive at once.
+ * Queries may run in parallel; add and updateStatus must not run
+ * concurrently with queries.
+ *
+ * Example:
+ *   try (OffHeapOrders orders = OffHeapOrders.of(customerOrders)) {
+ *       orders.setParallel(true);
+ *       orders.getRevenueByCategory();
+ *   }
+ */
+public final class OffHeapOrders implements AutoCloseable {
+
+    static final int SEGMENT_RECORDS = 1 << 16;
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+    private static final int ORDER_SIZE = 24;
+    private static final int ITEM_SIZE = 16;
+
+    // Ranges within one segment are only split when at least this large
+    private static final int MIN_SPLIT = 1 << 10;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private ByteBuffer[] orderSegments = new ByteBuffer[4];
+    private ByteBuffer[] itemSegments = new ByteBuffer[4];
+    private int orderCount;
+    private int itemCount;
+    private boolean closed;
+    private boolean parallel;
+
+    private final OffHeapIdIndex orderIds = new OffHeapIdIndex();
+    private final Dictionary<String> customers = new Dictionary<>();
+    private final Dictionary<Product> products = new Dictionary<>();
+    private final OrderTable table = new Table();
+
+    /**
+     * Creates an empty repository.
+     */
+    public OffHeapOrders() {
+    }
+
+    /**
+     * Copies the given orders off-heap; the list can be dropped afterwards.
+     *
+     * @throws IllegalArgumentException if two orders share an id
+     */
+    public static OffHeapOrders of(List<CustomerOrder> orders) {
+        OffHeapOrders result = new OffHeapOrders();
+        orders.forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Switches the queries between sequential and parallel streams.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    public int itemCount() {
+        return itemCount;
+    }
+
+    // =========================================================================
+    // UPDATES
+    // =========================================================================
+
+    /**
+     * Appends an order.
+     *
+     * @throws IllegalArgumentException if an order with the same id exists
+     */
+    public void add(CustomerOrder order) {
+        checkOpen();
+        if (orderIds.indexOf(order.id()) >= 0) {
+            throw new IllegalArgumentException("Duplicate order id: " + order.id());
+        }
+        int o = orderCount;
+        orderIds.put(order.id(), o);
+        orderSegments = ensureSegment(orderSegments, o, ORDER_SIZE);
+        ByteBuffer orderSegment = orderSegments[o >>> SEGMENT_SHIFT];
+        int base = (o & SEGMENT_MASK) * ORDER_SIZE;
+        orderSegment.putInt(base, order.status().ordinal());
+        orderSegment.putInt(base + 4, customers.encode(order.customerId()));
+        orderSegment.putInt(base + 8, (int) order.orderDate().toEpochDay());
+        orderSegment.putInt(base + 12, itemCount);
+        orderSegment.putInt(base + 16, order.items().size());
+
+        for (OrderItem item : order.items()) {
+            int i = itemCount;
+            itemSegments = ensureSegment(itemSegments, i, ITEM_SIZE);
+            ByteBuffer itemSegment = itemSegments[i >>> SEGMENT_SHIFT];
+            int itemBase = (i & SEGMENT_MASK) * ITEM_SIZE;
+            itemSegment.putInt(itemBase, products.encode(item.product()));
+            itemSegment.putInt(itemBase + 4, item.quantity());
+            itemSegment.putDouble(itemBase + 8, item.product().price());
+            itemCount++;
+        }
+        orderCount++;
+    }
+
+    /**
+     * Moves an order to a new status by rewriting its status field.
+     *
+     * @throws NoSuchElementException if there is no order with that id
+     * @throws IllegalStateException if the order cannot move to that status
+     */
+    public void updateStatus(String orderId, OrderStatus newStatus) {
+        checkOpen();
+        int o = orderIds.indexOf(orderId);
+        if (o < 0) {
+            throw new NoSuchElementException("Unknown order id: " + orderId);
+        }
+        OrderStatus current = STATUSES[table.status(o)];
+        if (!current.canTransitionTo(newStatus)) {
+            throw new IllegalStateException(
+                    "Order " + orderId + " cannot move from " + current + " to " + newStatus);
+        }
+        orderSegments[o >>> SEGMENT_SHIFT].putInt((o & SEGMENT_MASK) * ORDER_SIZE, newStatus.ordinal());
+    }
+
+    /**
+     * Drops the segments; further calls throw IllegalStateException. The
+     * memory is freed by a later garbage collection, not by this call.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        orderSegments = null;
+        itemSegments = null;
+        orderIds.close();
+    }
+
+    // =========================================================================
+    // ANALYTICS
+    // =========================================================================
+
+    /**
+     * Total revenue from all DELIVERED orders.
+     */
+    public double getTotalRevenue() {
+        return OrderAnalytics.totalRevenue(table);
+    }
+
+    /**
+     * Number of orders with the given status.
+     */
+    public long getOrderCount(OrderStatus status) {
+        return OrderAnalytics.orderCount(table, status);
+    }
+
+    /**
+     * Revenue by customer id (DELIVERED orders only).
+     */
+    public Map<String, Double> getRevenueByCustomer() {
+        return OrderAnalytics.revenueByCustomer(table);
+    }
+
+    /**
+     * Revenue by category (DELIVERED orders only).
+     */
+    public Map<String, Double> getRevenueByCategory() {
+        return OrderAnalytics.revenueByCategory(getCategorySummary());
+    }
+
+    /**
+     * Revenue and quantity per category (DELIVERED orders only).
+     */
+    public Map<String, CategorySummary> getCategorySummary() {
+        return OrderAnalytics.categorySummary(table);
+    }
+
+    /**
+     * Quantity sold per product id (any status).
+     */
+    public Map<String, Integer> getProductQuantitySold() {
+        return OrderAnalytics.productQuantitySold(table);
+    }
+
+    /**
+     * Top N products by quantity sold (any status), highest first, ties by product id.
+     */
+    public List<Product> getTopSellingProducts(int n) {
+        return OrderAnalytics.topSellingProducts(table, n);
+    }
+
+    // =========================================================================
+    // SEGMENT ACCESS
+    // =========================================================================
+
+    /**
+     * Order numbers 0..orderCount-1, sequential or parallel depending on setParallel.
+     */
+    IntStream orders() {
+        checkOpen();
+        return StreamSupport.intStream(new RecordSpliterator(0, orderCount), parallel);
+    }
+
+    /**
+     * Spliterator over record numbers. Ranges spanning several segments split
+     * on a segment boundary, so every thread walks whole segments; a range
+     * inside one segment splits in half down to MIN_SPLIT records.
+     */
+    private static final class RecordSpliterator implements Spliterator.OfInt {
+        private int index;
+        private final int fence;
+
+        RecordSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int lo = index;
+            int mid;
+            if ((lo >>> SEGMENT_SHIFT) != ((fence - 1) >>> SEGMENT_SHIFT)) {
+                mid = ((lo + fence) >>> 1) & ~SEGMENT_MASK;
+                if (mid <= lo) {
+                    mid = ((lo >>> SEGMENT_SHIFT) + 1) << SEGMENT_SHIFT;
+                }
+            } else if (fence - lo >= 2 * MIN_SPLIT) {
+                mid = (lo + fence) >>> 1;
+            } else {
+                return null;
+            }
+            index = mid;
+            return new RecordSpliterator(lo, mid);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(index++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int i = index;
+            index = fence;
+            for (; i < fence; i++) {
+                action.accept(i);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * The segments seen through {@link OrderTable}, for {@link OrderAnalytics}.
+     */
+    private final class Table implements OrderTable {
+        @Override
+        public int orderCount() {
+            return orderCount;
+        }
+
+        @Override
+        public IntStream orders() {
+            return OffHeapOrders.this.orders();
+        }
+
+        @Override
+        public int status(int o) {
+            return orderSegments[o >>> SEGMENT_SHIFT].getInt((o & SEGMENT_MASK) * ORDER_SIZE);
+        }
+
+        @Override
+        public int customer(int o) {
+            return orderSegments[o >>> SEGMENT_SHIFT].getInt((o & SEGMENT_MASK) * ORDER_SIZE + 4);
+        }
+
+        @Override
+        public int day(int o) {
+            return orderSegments[o >>> SEGMENT_SHIFT].getInt((o & SEGMENT_MASK) * ORDER_SIZE + 8);
+        }
+
+        @Override
+        public int firstItem(int o) {
+            return orderSegments[o >>> SEGMENT_SHIFT].getInt((o & SEGMENT_MASK) * ORDER_SIZE + 12);
+        }
+
+        @Override
+        public int endItem(int o) {
+            return firstItem(o) + orderSegments[o >>> SEGMENT_SHIFT].getInt((o & SEGMENT_MASK) * ORDER_SIZE + 16);
+        }
+
+        @Override
+        public int itemProduct(int i) {
+            return itemSegments[i >>> SEGMENT_SHIFT].getInt((i & SEGMENT_MASK) * ITEM_SIZE);
+        }
+
+        @Override
+        public int itemQuantity(int i) {
+            return itemSegments[i >>> SEGMENT_SHIFT].getInt((i & SEGMENT_MASK) * ITEM_SIZE + 4);
+        }
+
+        @Override
+        public double itemPrice(int i) {
+            return itemSegments[i >>> SEGMENT_SHIFT].getDouble((i & SEGMENT_MASK) * ITEM_SIZE + 8);
+        }
+
+        @Override
+        public int customerCount() {
+            return customers.size();
+        }
+
+        @Override
+        public String customerId(int c) {
+            return customers.decode(c);
+        }
+
+        @Override
+        public int productCount() {
+            return products.size();
+        }
+
+        @Override
+        public Product product(int p) {
+            return products.decode(p);
+        }
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    /**
+     * Makes sure the segment holding the given record exists, allocating it
+     * off-heap when the previous one is full.
+     */
+    private static ByteBuffer[] ensureSegment(ByteBuffer[] segments, int record, int recordSize) {
+        int segment = record >>> SEGMENT_SHIFT;
+        if (segment == segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        if (segments[segment] == null) {
+            segments[segment] = ByteBuffer.allocateDirect(SEGMENT_RECORDS * recordSize)
+                    .order(ByteOrder.nativeOrder());
+        }
+        return segments;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Order repository is closed");
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.Collector;
+
+/**
+ * Computes several order metrics in a single pass over the orders.
+ *
+ * An instance is both the accumulator and the result bundle: it is created
+ * with the set of requested metrics, each order is folded in once with
+ * {@link #accept(CustomerOrder)}, and the typed accessors read the results.
+ * Accessing a metric that was not requested throws IllegalStateException.
+ *
+ * Orders can also be taken out again with {@link #remove(CustomerOrder)},
+ * so a bundle can be kept live as orders arrive and change status. Both
+ * operations cost O(items in order). Instances are not thread-safe.
+ *
+ * Example:
+ *   OrderAggregates aggregates = orders.stream()
+ *           .collect(OrderAggregates.collector(EnumSet.of(Metric.TOTAL_REVENUE, Metric.MONTHLY_REVENUE)));
+ *   aggregates.totalRevenue();
+ */
+public final class OrderAggregates {
+
+    /**
+     * Metrics the engine can compute. Revenue metrics count DELIVERED orders only;
+     * order counts and quantities count every order.
+     */
+    public enum Metric {
+        TOTAL_REVENUE,
+        AVERAGE_ORDER_VALUE,
+        ORDER_COUNT_BY_STATUS,
+        REVENUE_BY_CUSTOMER,
+        CUSTOMER_ORDER_COUNTS,
+        REVENUE_BY_CATEGORY,
+        PRODUCT_QUANTITY_SOLD,
+        CATEGORY_SUMMARY,
+        MONTHLY_REVENUE,
+        DAILY_ORDER_COUNTS,
+        DAILY_REVENUE
+    }
+
+    /**
+     * Running totals for one key. The count tracks how many orders (or items)
+     * contributed, so a key disappears when its last contribution is removed.
+     */
+    private static final class Tally {
+        double revenue;
+        long units;
+        long count;
+
+        void add(Tally other) {
+            revenue += other.revenue;
+            units += other.units;
+            count += other.count;
+        }
+    }
+
+    private final Set<Metric> metrics;
+
+    // Flags resolved once so the per-order path only tests booleans
+    private final boolean deliveredTotals;
+    private final boolean statusCounts;
+    private final boolean customerRevenue;
+    private final boolean customerCounts;
+    private final boolean categoryTotals;
+    private final boolean productQuantities;
+    private final boolean monthlyRevenue;
+    private final boolean dailyCounts;
+    private final boolean dailyRevenue;
+
+    private double totalRevenue;
+    private long deliveredCount;
+    private final long[] countByStatus = new long[OrderStatus.values().length];
+    private final Map<String, Tally> revenueByCustomer = new HashMap<>();
+    private final Map<String, Tally> ordersByCustomer = new HashMap<>();
+    private final Map<String, Tally> totalsByCategory = new HashMap<>();
+    private final Map<String, Tally> quantityByProduct = new HashMap<>();
+    private final Map<YearMonth, Tally> revenueByMonth = new HashMap<>();
+    private final Map<LocalDate, Tally> ordersByDay = new HashMap<>();
+    private final Map<LocalDate, Tally> revenueByDay = new HashMap<>();
+
+    /**
+     * Creates an empty accumulator for the requested metrics.
+     */
+    public OrderAggregates(Set<Metric> metrics) {
+        this.metrics = metrics.isEmpty() ? EnumSet.noneOf(Metric.class) : EnumSet.copyOf(metrics);
+        deliveredTotals = covers(Metric.TOTAL_REVENUE) || covers(Metric.AVERAGE_ORDER_VALUE);
+        statusCounts = covers(Metric.ORDER_COUNT_BY_STATUS);
+        customerRevenue = covers(Metric.REVENUE_BY_CUSTOMER);
+        customerCounts = covers(Metric.CUSTOMER_ORDER_COUNTS);
+        categoryTotals = covers(Metric.REVENUE_BY_CATEGORY) || covers(Metric.CATEGORY_SUMMARY);
+        productQuantities = covers(Metric.PRODUCT_QUANTITY_SOLD);
+        monthlyRevenue = covers(Metric.MONTHLY_REVENUE);
+        dailyCounts = covers(Metric.DAILY_ORDER_COUNTS);
+        dailyRevenue = covers(Metric.DAILY_REVENUE);
+    }
+
+    /**
+     * Collector that computes the requested metrics in one pass.
+     * The accumulators merge, so the collector also works on parallel streams.
+     */
+    public static Collector<CustomerOrder, ?, OrderAggregates> collector(Set<Metric> metrics) {
+        Set<Metric> requested = metrics.isEmpty() ? EnumSet.noneOf(Metric.class) : EnumSet.copyOf(metrics);
+        return Collector.of(
+                () -> new OrderAggregates(requested),
+                OrderAggregates::accept,
+                OrderAggregates::combine,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * True if this bundle computes the given metric.
+     */
+    public boolean covers(Metric metric) {
+        return metrics.contains(metric);
+    }
+
+    /**
+     * The metrics this bundle computes.
+     */
+    public Set<Metric> metrics() {
+        return Collections.unmodifiableSet(metrics);
+    }
+
+    // =========================================================================
+    // ACCUMULATION
+    // =========================================================================
+
+    /**
+     * Folds one order into every requested metric.
+     */
+    public void accept(CustomerOrder order) {
+        apply(order, 1);
+    }
+
+    /**
+     * Takes a previously accepted order out of every requested metric.
+     */
+    public void remove(CustomerOrder order) {
+        apply(order, -1);
+    }
+
+    private void apply(CustomerOrder order, int sign) {
+        boolean delivered = order.status() == OrderStatus.DELIVERED;
+        if (statusCounts) {
+            countByStatus[order.status().ordinal()] += sign;
+        }
+        if (customerCounts) {
+            tally(ordersByCustomer, order.customerId(), 0, 0, sign);
+        }
+        if (dailyCounts) {
+            tally(ordersByDay, order.orderDate(), 0, 0, sign);
+        }
+        if (productQuantities || (delivered && categoryTotals)) {
+            List<OrderItem> items = order.items();
+            for (int i = 0; i < items.size(); i++) {
+                OrderItem item = items.get(i);
+                if (productQuantities) {
+                    tally(quantityByProduct, item.product().id(), 0, item.quantity(), sign);
+                }
+                if (delivered && categoryTotals) {
+                    tally(totalsByCategory, item.product().category(), item.getLineTotal(), item.quantity(), sign);
+                }
+            }
+        }
+        if (!delivered) {
+            return;
+        }
+        double total = order.getTotal();
+        if (deliveredTotals) {
+            totalRevenue += sign * total;
+            deliveredCount += sign;
+        }
+        if (customerRevenue) {
+            tally(revenueByCustomer, order.customerId(), total, 0, sign);
+        }
+        if (monthlyRevenue) {
+            tally(revenueByMonth, YearMonth.from(order.orderDate()), total, 0, sign);
+        }
+        if (dailyRevenue) {
+            tally(revenueByDay, order.orderDate(), total, 0, sign);
+        }
+    }
+
+    /**
+     * Merges another accumulator for the same metrics into this one.
+     */
+    public OrderAggregates combine(OrderAggregates other) {
+        totalRevenue += other.totalRevenue;
+        deliveredCount += other.deliveredCount;
+        for (int s = 0; s < countByStatus.length; s++) {
+            countByStatus[s] += other.countByStatus[s];
+        }
+        merge(revenueByCustomer, other.revenueByCustomer);
+        merge(ordersByCustomer, other.ordersByCustomer);
+        merge(totalsByCategory, other.totalsByCategory);
+        merge(quantityByProduct, other.quantityByProduct);
+        merge(revenueByMonth, other.revenueByMonth);
+        merge(ordersByDay, other.ordersByDay);
+        merge(revenueByDay, other.revenueByDay);
+        return this;
+    }
+
+    // =========================================================================
+    // RESULTS
+    // =========================================================================
+
+    /**
+     * Total revenue from DELIVERED orders.
+     */
+    public double totalRevenue() {
+        require(Metric.TOTAL_REVENUE);
+        return totalRevenue;
+    }
+
+    /**
+     * Average value of DELIVERED orders.
+     *
+     * @throws NoSuchElementException if there are no delivered orders
+     */
+    public double averageOrderValue() {
+        require(Metric.AVERAGE_ORDER_VALUE);
+        if (deliveredCount == 0) {
+            throw new NoSuchElementException("No value present");
+        }
+        return totalRevenue / deliveredCount;
+    }
+
+    /**
+     * Number of orders with the given status.
+     */
+    public long orderCount(OrderStatus status) {
+        require(Metric.ORDER_COUNT_BY_STATUS);
+        return countByStatus[status.ordinal()];
+    }
+
+    /**
+     * Revenue by customer id (DELIVERED orders).
+     */
+    public Map<String, Double> revenueByCustomer() {
+        require(Metric.REVENUE_BY_CUSTOMER);
+        return revenues(revenueByCustomer);
+    }
+
+    /**
+     * Number of orders per customer id.
+     */
+    public Map<String, Long> customerOrderCounts() {
+        require(Metric.CUSTOMER_ORDER_COUNTS);
+        return counts(ordersByCustomer);
+    }
+
+    /**
+     * Revenue by category (DELIVERED orders).
+     */
+    public Map<String, Double> revenueByCategory() {
+        require(Metric.REVENUE_BY_CATEGORY);
+        return revenues(totalsByCategory);
+    }
+
+    /**
+     * Quantity sold per product id.
+     */
+    public Map<String, Integer> productQuantitySold() {
+        require(Metric.PRODUCT_QUANTITY_SOLD);
+        Map<String, Integer> result = new HashMap<>();
+        quantityByProduct.forEach((k, v) -> result.put(k, (int) v.units));
+        return result;
+    }
+
+    /**
+     * Revenue and quantity per category (DELIVERED orders).
+     */
+    public Map<String, CategorySummary> categorySummary() {
+        require(Metric.CATEGORY_SUMMARY);
+        Map<String, CategorySummary> result = new HashMap<>();
+        totalsByCategory.forEach((k, v) -> result.put(k, new CategorySummary(v.revenue, (int) v.units)));
+        return result;
+    }
+
+    /**
+     * Revenue by month (DELIVERED orders).
+     */
+    public Map<YearMonth, Double> monthlyRevenue() {
+        require(Metric.MONTHLY_REVENUE);
+        return revenues(revenueByMonth);
+    }
+
+    /**
+     * Number of orders per date.
+     */
+    public Map<LocalDate, Long> dailyOrderCounts() {
+        require(Metric.DAILY_ORDER_COUNTS);
+        return counts(ordersByDay);
+    }
+
+    /**
+     * Revenue by date (DELIVERED orders).
+     */
+    public Map<LocalDate, Double> dailyRevenue() {
+        require(Metric.DAILY_REVENUE);
+        return revenues(revenueByDay);
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private void require(Metric metric) {
+        if (!covers(metric)) {
+            throw new IllegalStateException(metric + " was not requested");
+        }
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) one contribution; drops the key when none are left.
+     */
+    private static <K> void tally(Map<K, Tally> tallies, K key, double revenue, long units, int sign) {
+        Tally tally = tallies.computeIfAbsent(key, k -> new Tally());
+        tally.revenue += sign * revenue;
+        tally.units += sign * units;
+        tally.count += sign;
+        if (tally.count == 0) {
+            tallies.remove(key);
+        }
+    }
+
+    private static <K> void merge(Map<K, Tally> target, Map<K, Tally> source) {
+        source.forEach((k, v) -> target.computeIfAbsent(k, x -> new Tally()).add(v));
+    }
+
+    private static <K> Map<K, Double> revenues(Map<K, Tally> tallies) {
+        Map<K, Double> result = new HashMap<>();
+        tallies.forEach((k, v) -> result.put(k, v.revenue));
+        return result;
+    }
+
+    private static <K> Map<K, Long> counts(Map<K, Tally> tallies) {
+        Map<K, Long> result = new HashMap<>();
+        tallies.forEach((k, v) -> result.put(k, v.count));
+        return result;
+    }
+}
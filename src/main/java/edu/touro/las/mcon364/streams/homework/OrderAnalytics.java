@@ -0,0 +1,243 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * The analytics of the storage formats that do not hold CustomerOrder
+ * objects ({@link OrderColumns}, {@link OrderFile}, {@link OffHeapOrders}),
+ * written once over {@link OrderTable}.
+ *
+ * Grouped totals accumulate into {@link CodeTotals} indexed by customer or
+ * product code and are decoded to strings only for the result. They visit
+ * the orders through {@link OrderTable#orders()}, so they run in parallel
+ * when the table's stream is parallel; the time-based ones walk the orders
+ * sequentially.
+ */
+final class OrderAnalytics {
+
+    private static final int DELIVERED = OrderStatus.DELIVERED.ordinal();
+
+    private OrderAnalytics() {
+    }
+
+    // =========================================================================
+    // PART 1: Basic Analytics
+    // =========================================================================
+
+    /**
+     * Total revenue from all DELIVERED orders.
+     */
+    static double totalRevenue(OrderTable table) {
+        return table.orders()
+                .filter(o -> table.status(o) == DELIVERED)
+                .mapToDouble(o -> orderTotal(table, o))
+                .sum();
+    }
+
+    /**
+     * Number of orders with the given status.
+     */
+    static long orderCount(OrderTable table, OrderStatus status) {
+        int ordinal = status.ordinal();
+        return table.orders()
+                .filter(o -> table.status(o) == ordinal)
+                .count();
+    }
+
+    /**
+     * The given delivered revenue divided by the number of DELIVERED orders.
+     *
+     * @throws NoSuchElementException if there are no delivered orders
+     */
+    static double averageOrderValue(OrderTable table, double totalRevenue) {
+        long count = orderCount(table, OrderStatus.DELIVERED);
+        if (count == 0) {
+            throw new NoSuchElementException("No value present");
+        }
+        return totalRevenue / count;
+    }
+
+    // =========================================================================
+    // PART 2: Customer Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by customer id (DELIVERED orders only).
+     */
+    static Map<String, Double> revenueByCustomer(OrderTable table) {
+        CodeTotals totals = CodeTotals.collect(table.customerCount(), table.orders(), (sink, o) -> {
+            if (table.status(o) == DELIVERED) {
+                sink.add(table.customer(o), orderTotal(table, o), 0);
+            }
+        });
+        return decode(totals, table::customerId, totals::sum);
+    }
+
+    /**
+     * Top N customer ids by revenue (DELIVERED orders), highest first, ties by id.
+     */
+    static List<String> topCustomers(OrderTable table, int n) {
+        return revenueByCustomer(table).entrySet().stream()
+                .collect(TopK.keysByValue(n));
+    }
+
+    /**
+     * Number of orders per customer id (any status).
+     */
+    static Map<String, Long> customerOrderCounts(OrderTable table) {
+        CodeTotals totals = CodeTotals.collect(table.customerCount(), table.orders(),
+                (sink, o) -> sink.add(table.customer(o), 0, 0));
+        return decode(totals, table::customerId, totals::count);
+    }
+
+    /**
+     * Customer ids with more than one order.
+     */
+    static List<String> customersWithMultipleOrders(OrderTable table) {
+        return customerOrderCounts(table).entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    // =========================================================================
+    // PART 3: Product Analytics
+    // =========================================================================
+
+    /**
+     * Revenue and units per product code, over DELIVERED orders or all of them.
+     */
+    static CodeTotals productTotals(OrderTable table, boolean deliveredOnly) {
+        return CodeTotals.collect(table.productCount(), table.orders(), (sink, o) -> {
+            if (deliveredOnly && table.status(o) != DELIVERED) {
+                return;
+            }
+            for (int i = table.firstItem(o); i < table.endItem(o); i++) {
+                sink.add(table.itemProduct(i), table.itemPrice(i) * table.itemQuantity(i), table.itemQuantity(i));
+            }
+        });
+    }
+
+    /**
+     * Revenue and quantity per category (DELIVERED orders only).
+     */
+    static Map<String, CategorySummary> categorySummary(OrderTable table) {
+        return categorySummary(table, productTotals(table, true));
+    }
+
+    /**
+     * Per-product totals of DELIVERED items, added up by category.
+     */
+    static Map<String, CategorySummary> categorySummary(OrderTable table, CodeTotals byProduct) {
+        Map<String, CategorySummary> result = new HashMap<>();
+        for (int p = 0; p < byProduct.size(); p++) {
+            if (byProduct.count(p) > 0) {
+                result.merge(table.product(p).category(),
+                        new CategorySummary(byProduct.sum(p), (int) byProduct.units(p)),
+                        (a, b) -> new CategorySummary(a.totalRevenue() + b.totalRevenue(),
+                                a.totalQuantity() + b.totalQuantity()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Revenue by category, taken from a category summary.
+     */
+    static Map<String, Double> revenueByCategory(Map<String, CategorySummary> summary) {
+        Map<String, Double> result = new HashMap<>();
+        summary.forEach((category, totals) -> result.put(category, totals.totalRevenue()));
+        return result;
+    }
+
+    /**
+     * Top N products by quantity sold (any status), highest first, ties by product id.
+     */
+    static List<Product> topSellingProducts(OrderTable table, int n) {
+        CodeTotals totals = productTotals(table, false);
+        Comparator<Integer> byUnits = Comparator.comparingLong((Integer p) -> totals.units(p)).reversed()
+                .thenComparing(p -> table.product(p).id());
+        return IntStream.range(0, totals.size())
+                .filter(p -> totals.count(p) > 0)
+                .boxed()
+                .collect(TopK.collector(n, byUnits))
+                .stream()
+                .map(table::product)
+                .toList();
+    }
+
+    /**
+     * Quantity sold per product id (products that were ordered, any status).
+     */
+    static Map<String, Integer> productQuantitySold(OrderTable table) {
+        CodeTotals totals = productTotals(table, false);
+        Map<String, Integer> result = new HashMap<>();
+        for (int p = 0; p < totals.size(); p++) {
+            if (totals.count(p) > 0) {
+                result.merge(table.product(p).id(), (int) totals.units(p), Integer::sum);
+            }
+        }
+        return result;
+    }
+
+    // =========================================================================
+    // PART 4: Time-Based Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by month (DELIVERED orders only).
+     */
+    static Map<YearMonth, Double> monthlyRevenue(OrderTable table) {
+        Map<YearMonth, Double> result = new HashMap<>();
+        for (int o = 0; o < table.orderCount(); o++) {
+            if (table.status(o) == DELIVERED) {
+                result.merge(month(table.day(o)), orderTotal(table, o), Double::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of orders per date.
+     */
+    static Map<LocalDate, Long> dailyOrderCounts(OrderTable table) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (int o = 0; o < table.orderCount(); o++) {
+            counts.merge(table.day(o), 1L, Long::sum);
+        }
+        Map<LocalDate, Long> result = new HashMap<>();
+        counts.forEach((day, count) -> result.put(LocalDate.ofEpochDay(day), count));
+        return result;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    static double orderTotal(OrderTable table, int o) {
+        double total = 0;
+        for (int i = table.firstItem(o); i < table.endItem(o); i++) {
+            total += table.itemPrice(i) * table.itemQuantity(i);
+        }
+        return total;
+    }
+
+    static YearMonth month(int epochDay) {
+        return YearMonth.from(LocalDate.ofEpochDay(epochDay));
+    }
+
+    private static <V> Map<String, V> decode(CodeTotals totals, IntFunction<String> key, IntFunction<V> value) {
+        Map<String, V> result = new HashMap<>();
+        for (int code = 0; code < totals.size(); code++) {
+            if (totals.count(code) > 0) {
+                result.put(key.apply(code), value.apply(code));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,387 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Columnar, read-only snapshot of the order data used by {@link StreamHomework}.
+ *
+ * Instead of a list of {@link CustomerOrder} records that each hold a nested
+ * list of {@link OrderItem}s, the data is kept in parallel primitive arrays:
+ *
+ * - one slot per order: order date (epoch day), status ordinal, customer index
+ *   and the offset of the order's first line item
+ * - one slot per line item: product index, quantity, unit price and whether
+ *   the item's order is DELIVERED
+ *
+ * Customer ids and products are stored once in {@link Dictionary}s and the
+ * arrays refer to them by code, so a line item costs 17 bytes instead of
+ * an object graph. The analytics methods mirror the ones in
+ * {@link StreamHomework}: counts, keys and orderings are the same, and
+ * revenue figures agree to within floating-point rounding.
+ *
+ * Delivered revenue (getTotalRevenue, getAverageOrderValue,
+ * getRevenueByCategory, getCategorySummary) is summed over the item columns
+ * by {@link RevenueKernels}, the vector ones when the incubator module is
+ * loaded; {@link #withKernels(RevenueKernels)} picks them explicitly. These
+ * add up line items rather than order totals, and the vector kernels add in
+ * lane order, so their sums can differ from StreamHomework's in the last bits.
+ */
+public final class OrderColumns {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    // Line totals are computed a block at a time before being added up by product
+    private static final int BLOCK = 1024;
+
+    // Dictionaries
+    private final String[] customerIds;
+    private final Product[] products;
+
+    // Order columns
+    private final String[] orderIds;
+    private final int[] orderDate;
+    private final byte[] orderStatus;
+    private final int[] orderCustomer;
+    private final int[] itemOffsets;
+
+    // Line item columns
+    private final int[] itemProduct;
+    private final int[] itemQuantity;
+    private final double[] itemPrice;
+    private final boolean[] itemDelivered;
+
+    private final RevenueKernels kernels;
+    private final OrderTable table = new Table();
+
+    private OrderColumns(String[] customerIds, Product[] products, String[] orderIds,
+                         int[] orderDate, byte[] orderStatus, int[] orderCustomer,
+                         int[] itemOffsets, int[] itemProduct, int[] itemQuantity,
+                         double[] itemPrice, boolean[] itemDelivered, RevenueKernels kernels) {
+        this.customerIds = customerIds;
+        this.products = products;
+        this.orderIds = orderIds;
+        this.orderDate = orderDate;
+        this.orderStatus = orderStatus;
+        this.orderCustomer = orderCustomer;
+        this.itemOffsets = itemOffsets;
+        this.itemProduct = itemProduct;
+        this.itemQuantity = itemQuantity;
+        this.itemPrice = itemPrice;
+        this.itemDelivered = itemDelivered;
+        this.kernels = kernels;
+    }
+
+    /**
+     * Builds a columnar snapshot of the given orders.
+     */
+    public static OrderColumns of(List<CustomerOrder> orders) {
+        int orderCount = orders.size();
+        int itemCount = orders.stream().mapToInt(CustomerOrder::getItemCount).sum();
+
+        Dictionary<String> customerIds = new Dictionary<>();
+        Dictionary<Product> products = new Dictionary<>();
+
+        String[] orderIds = new String[orderCount];
+        int[] orderDate = new int[orderCount];
+        byte[] orderStatus = new byte[orderCount];
+        int[] orderCustomer = new int[orderCount];
+        int[] itemOffsets = new int[orderCount + 1];
+        int[] itemProduct = new int[itemCount];
+        int[] itemQuantity = new int[itemCount];
+        double[] itemPrice = new double[itemCount];
+        boolean[] itemDelivered = new boolean[itemCount];
+
+        int item = 0;
+        for (int o = 0; o < orderCount; o++) {
+            CustomerOrder order = orders.get(o);
+            orderIds[o] = order.id();
+            orderDate[o] = (int) order.orderDate().toEpochDay();
+            orderStatus[o] = (byte) order.status().ordinal();
+            orderCustomer[o] = customerIds.encode(order.customerId());
+            itemOffsets[o] = item;
+            for (OrderItem orderItem : order.items()) {
+                itemProduct[item] = products.encode(orderItem.product());
+                itemQuantity[item] = orderItem.quantity();
+                itemPrice[item] = orderItem.product().price();
+                itemDelivered[item] = order.status() == OrderStatus.DELIVERED;
+                item++;
+            }
+        }
+        itemOffsets[orderCount] = item;
+
+        return new OrderColumns(customerIds.values().toArray(String[]::new), products.values().toArray(Product[]::new),
+                orderIds, orderDate, orderStatus, orderCustomer, itemOffsets,
+                itemProduct, itemQuantity, itemPrice, itemDelivered, RevenueKernels.best());
+    }
+
+    /**
+     * The same snapshot summing revenue with the given kernels; shares the columns.
+     */
+    public OrderColumns withKernels(RevenueKernels kernels) {
+        return new OrderColumns(customerIds, products, orderIds, orderDate, orderStatus, orderCustomer,
+                itemOffsets, itemProduct, itemQuantity, itemPrice, itemDelivered, Objects.requireNonNull(kernels));
+    }
+
+    /**
+     * The kernels that sum delivered revenue.
+     */
+    public RevenueKernels kernels() {
+        return kernels;
+    }
+
+    /**
+     * Number of orders in the snapshot.
+     */
+    public int orderCount() {
+        return orderIds.length;
+    }
+
+    /**
+     * Number of line items in the snapshot.
+     */
+    public int itemCount() {
+        return itemProduct.length;
+    }
+
+    // =========================================================================
+    // PART 1: Basic Analytics
+    // =========================================================================
+
+    /**
+     * Total revenue from all DELIVERED orders.
+     */
+    public double getTotalRevenue() {
+        return kernels.sum(itemPrice, itemQuantity, itemDelivered, 0, itemPrice.length);
+    }
+
+    /**
+     * Number of orders with the given status.
+     */
+    public long getOrderCount(OrderStatus status) {
+        return OrderAnalytics.orderCount(table, status);
+    }
+
+    /**
+     * All products that appear in any order.
+     */
+    public Set<Product> getUniqueProducts() {
+        return new HashSet<>(Arrays.asList(products));
+    }
+
+    /**
+     * Average value of DELIVERED orders.
+     *
+     * @throws NoSuchElementException if there are no delivered orders
+     */
+    public double getAverageOrderValue() {
+        return OrderAnalytics.averageOrderValue(table, getTotalRevenue());
+    }
+
+    // =========================================================================
+    // PART 2: Customer Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by customer id (DELIVERED orders only).
+     */
+    public Map<String, Double> getRevenueByCustomer() {
+        return OrderAnalytics.revenueByCustomer(table);
+    }
+
+    /**
+     * Top N customer ids by revenue (DELIVERED orders), highest first, ties by id.
+     */
+    public List<String> getTopCustomers(int n) {
+        return OrderAnalytics.topCustomers(table, n);
+    }
+
+    /**
+     * Number of orders per customer id (any status).
+     */
+    public Map<String, Long> getCustomerOrderCounts() {
+        return OrderAnalytics.customerOrderCounts(table);
+    }
+
+    /**
+     * Customer ids with more than one order.
+     */
+    public List<String> getCustomersWithMultipleOrders() {
+        return OrderAnalytics.customersWithMultipleOrders(table);
+    }
+
+    // =========================================================================
+    // PART 3: Product Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by category (DELIVERED orders only).
+     */
+    public Map<String, Double> getRevenueByCategory() {
+        return OrderAnalytics.revenueByCategory(getCategorySummary());
+    }
+
+    /**
+     * Top N products by quantity sold (any status), highest first, ties by product id.
+     */
+    public List<Product> getTopSellingProducts(int n) {
+        return OrderAnalytics.topSellingProducts(table, n);
+    }
+
+    /**
+     * Quantity sold per product id (any status).
+     */
+    public Map<String, Integer> getProductQuantitySold() {
+        return OrderAnalytics.productQuantitySold(table);
+    }
+
+    /**
+     * Revenue and quantity per category (DELIVERED orders only).
+     */
+    public Map<String, CategorySummary> getCategorySummary() {
+        double[] lineTotals = new double[Math.min(BLOCK, itemPrice.length)];
+        int blocks = (itemPrice.length + BLOCK - 1) / BLOCK;
+        CodeTotals byProduct = CodeTotals.collect(products.length, blocks, false, (sink, block) -> {
+            int from = block * BLOCK;
+            int to = Math.min(from + BLOCK, itemPrice.length);
+            kernels.lineTotals(itemPrice, itemQuantity, itemDelivered, from, to, lineTotals);
+            for (int i = from; i < to; i++) {
+                if (itemDelivered[i]) {
+                    sink.add(itemProduct[i], lineTotals[i - from], itemQuantity[i]);
+                }
+            }
+        });
+        return OrderAnalytics.categorySummary(table, byProduct);
+    }
+
+    // =========================================================================
+    // PART 4: Time-Based Analytics
+    // =========================================================================
+
+    /**
+     * Orders grouped by month. The orders are rebuilt from the columns.
+     */
+    public Map<YearMonth, List<CustomerOrder>> getOrdersByMonth() {
+        Map<YearMonth, List<CustomerOrder>> result = new HashMap<>();
+        for (int o = 0; o < orderIds.length; o++) {
+            result.computeIfAbsent(OrderAnalytics.month(orderDate[o]), m -> new ArrayList<>()).add(order(o));
+        }
+        return result;
+    }
+
+    /**
+     * Revenue by month (DELIVERED orders only).
+     */
+    public Map<YearMonth, Double> getMonthlyRevenue() {
+        return OrderAnalytics.monthlyRevenue(table);
+    }
+
+    /**
+     * Orders with start <= orderDate <= end. The orders are rebuilt from the columns.
+     */
+    public List<CustomerOrder> getOrdersInDateRange(LocalDate start, LocalDate end) {
+        long from = start.toEpochDay();
+        long to = end.toEpochDay();
+        List<CustomerOrder> result = new ArrayList<>();
+        for (int o = 0; o < orderIds.length; o++) {
+            if (orderDate[o] >= from && orderDate[o] <= to) {
+                result.add(order(o));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of orders per date.
+     */
+    public Map<LocalDate, Long> getDailyOrderCounts() {
+        return OrderAnalytics.dailyOrderCounts(table);
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    /**
+     * Rebuilds the order at the given position as a {@link CustomerOrder}.
+     */
+    public CustomerOrder order(int o) {
+        List<OrderItem> items = new ArrayList<>(itemOffsets[o + 1] - itemOffsets[o]);
+        for (int i = itemOffsets[o]; i < itemOffsets[o + 1]; i++) {
+            items.add(new OrderItem(products[itemProduct[i]], itemQuantity[i]));
+        }
+        return new CustomerOrder(orderIds[o], customerIds[orderCustomer[o]], List.copyOf(items),
+                LocalDate.ofEpochDay(orderDate[o]), STATUSES[orderStatus[o]]);
+    }
+
+    /**
+     * The columns seen through {@link OrderTable}, for {@link OrderAnalytics}.
+     */
+    private final class Table implements OrderTable {
+        @Override
+        public int orderCount() {
+            return orderIds.length;
+        }
+
+        @Override
+        public int status(int o) {
+            return orderStatus[o];
+        }
+
+        @Override
+        public int customer(int o) {
+            return orderCustomer[o];
+        }
+
+        @Override
+        public int day(int o) {
+            return orderDate[o];
+        }
+
+        @Override
+        public int firstItem(int o) {
+            return itemOffsets[o];
+        }
+
+        @Override
+        public int endItem(int o) {
+            return itemOffsets[o + 1];
+        }
+
+        @Override
+        public int itemProduct(int i) {
+            return itemProduct[i];
+        }
+
+        @Override
+        public int itemQuantity(int i) {
+            return itemQuantity[i];
+        }
+
+        @Override
+        public double itemPrice(int i) {
+            return itemPrice[i];
+        }
+
+        @Override
+        public int customerCount() {
+            return customerIds.length;
+        }
+
+        @Override
+        public String customerId(int c) {
+            return customerIds[c];
+        }
+
+        @Override
+        public int productCount() {
+            return products.length;
+        }
+
+        @Override
+        public Product product(int p) {
+            return products[p];
+        }
+    }
+}
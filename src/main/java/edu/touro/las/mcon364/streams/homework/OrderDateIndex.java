@@ -0,0 +1,194 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Orders sorted by date and partitioned by month.
+ *
+ * Each month partition holds its orders in date order (orders on the same
+ * day keep their original order) together with the precomputed revenue of
+ * its DELIVERED orders. A date range lookup finds the months in a TreeMap,
+ * binary-searches the first and last partition and returns the contiguous
+ * slices in between, so it costs O(log n + result) instead of a full scan.
+ *
+ * The index can be kept current with {@link #add(CustomerOrder)} and
+ * {@link #replace(CustomerOrder, CustomerOrder)}. It is not thread-safe;
+ * StreamHomework guards it with its read/write lock.
+ */
+public final class OrderDateIndex {
+
+    /**
+     * Orders of one month in date order, plus the month's delivered totals.
+     */
+    private static final class MonthPartition {
+        final List<CustomerOrder> orders = new ArrayList<>();
+        double deliveredRevenue;
+        int deliveredCount;
+    }
+
+    private final NavigableMap<YearMonth, MonthPartition> partitions = new TreeMap<>();
+
+    private OrderDateIndex() {
+    }
+
+    /**
+     * Builds the index. The sort runs in parallel when requested.
+     */
+    public static OrderDateIndex of(List<CustomerOrder> orders, boolean parallelSort) {
+        CustomerOrder[] sorted = orders.toArray(CustomerOrder[]::new);
+        Comparator<CustomerOrder> byDate = Comparator.comparing(CustomerOrder::orderDate);
+        if (parallelSort) {
+            Arrays.parallelSort(sorted, byDate);
+        } else {
+            Arrays.sort(sorted, byDate);
+        }
+
+        OrderDateIndex index = new OrderDateIndex();
+        YearMonth month = null;
+        MonthPartition partition = null;
+        for (CustomerOrder order : sorted) {
+            if (month == null || !month.equals(YearMonth.from(order.orderDate()))) {
+                month = YearMonth.from(order.orderDate());
+                partition = new MonthPartition();
+                index.partitions.put(month, partition);
+            }
+            partition.orders.add(order);
+            if (order.status() == OrderStatus.DELIVERED) {
+                partition.deliveredRevenue += order.getTotal();
+                partition.deliveredCount++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Inserts a new order after any orders already on its date.
+     */
+    public void add(CustomerOrder order) {
+        MonthPartition partition = partitions.computeIfAbsent(YearMonth.from(order.orderDate()), m -> new MonthPartition());
+        partition.orders.add(firstAfter(partition.orders, order.orderDate()), order);
+        if (order.status() == OrderStatus.DELIVERED) {
+            partition.deliveredRevenue += order.getTotal();
+            partition.deliveredCount++;
+        }
+    }
+
+    /**
+     * Swaps an indexed order for an updated copy with the same id and date.
+     *
+     * @throws NoSuchElementException if the order is not in the index
+     */
+    public void replace(CustomerOrder current, CustomerOrder updated) {
+        MonthPartition partition = partitions.get(YearMonth.from(current.orderDate()));
+        int position = partition == null ? -1 : positionOf(partition.orders, current);
+        if (position < 0) {
+            throw new NoSuchElementException("Order not indexed: " + current.id());
+        }
+        partition.orders.set(position, updated);
+        if (current.status() == OrderStatus.DELIVERED) {
+            partition.deliveredRevenue -= current.getTotal();
+            partition.deliveredCount--;
+        }
+        if (updated.status() == OrderStatus.DELIVERED) {
+            partition.deliveredRevenue += updated.getTotal();
+            partition.deliveredCount++;
+        }
+    }
+
+    /**
+     * Orders with start <= orderDate <= end, in date order.
+     */
+    public List<CustomerOrder> range(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            return List.of();
+        }
+        List<CustomerOrder> result = new ArrayList<>();
+        YearMonth first = YearMonth.from(start);
+        YearMonth last = YearMonth.from(end);
+        for (Map.Entry<YearMonth, MonthPartition> entry : partitions.subMap(first, true, last, true).entrySet()) {
+            List<CustomerOrder> orders = entry.getValue().orders;
+            int from = entry.getKey().equals(first) ? firstOnOrAfter(orders, start) : 0;
+            int to = entry.getKey().equals(last) ? firstAfter(orders, end) : orders.size();
+            result.addAll(orders.subList(from, to));
+        }
+        return result;
+    }
+
+    /**
+     * Orders grouped by month, each list in date order. The lists are read-only
+     * copies, so later additions to the index do not show through.
+     */
+    public Map<YearMonth, List<CustomerOrder>> byMonth() {
+        Map<YearMonth, List<CustomerOrder>> result = new LinkedHashMap<>();
+        partitions.forEach((month, partition) -> result.put(month, List.copyOf(partition.orders)));
+        return result;
+    }
+
+    /**
+     * Precomputed revenue of DELIVERED orders per month. Months without
+     * delivered orders are left out, as in StreamHomework.getMonthlyRevenue().
+     */
+    public Map<YearMonth, Double> monthlyRevenue() {
+        Map<YearMonth, Double> result = new LinkedHashMap<>();
+        partitions.forEach((month, partition) -> {
+            if (partition.deliveredCount > 0) {
+                result.put(month, partition.deliveredRevenue);
+            }
+        });
+        return result;
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    /**
+     * Position of the order with the same id, searching only its date's slice.
+     */
+    private static int positionOf(List<CustomerOrder> orders, CustomerOrder order) {
+        int to = firstAfter(orders, order.orderDate());
+        for (int i = firstOnOrAfter(orders, order.orderDate()); i < to; i++) {
+            if (orders.get(i).id().equals(order.id())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Position of the first order dated on or after the given day.
+     */
+    private static int firstOnOrAfter(List<CustomerOrder> orders, LocalDate day) {
+        int low = 0;
+        int high = orders.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (orders.get(mid).orderDate().isBefore(day)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Position of the first order dated after the given day.
+     */
+    private static int firstAfter(List<CustomerOrder> orders, LocalDate day) {
+        int low = 0;
+        int high = orders.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (orders.get(mid).orderDate().isAfter(day)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
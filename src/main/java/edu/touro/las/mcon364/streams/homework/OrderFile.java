@@ -0,0 +1,526 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Binary on-disk format for a product catalog and its orders, read through
+ * a {@link MappedByteBuffer}.
+ *
+ * Opening a file only maps it and checks the header; nothing is parsed up
+ * front. The analytics methods read the fixed-width records in place, so
+ * the data stays off-heap and startup cost does not grow with the file.
+ * Strings are decoded (and cached) only when a result needs them.
+ *
+ * Layout, little-endian; the fixed-width record sections (products, orders,
+ * items) start on 8-byte boundaries, the string data directly follows its
+ * offsets:
+ *
+ * - header (48 bytes): magic, version, string/product/order/item counts and
+ *   the offset of each section below
+ * - string offsets: int[strings + 1], start of each string in the data section
+ * - string data: UTF-8 bytes of every distinct id, name and category
+ * - products (24 bytes each): id, name, category (string numbers), price (double)
+ * - orders (24 bytes each): id, customer (string numbers), epoch day, status
+ *   ordinal, first item, item count
+ * - items (8 bytes each): product number, quantity
+ *
+ * Every string is stored once, so a string number doubles as a dense code
+ * for grouping by customer or category. A file is mapped as one buffer and
+ * must be smaller than 2 GB. Queries only read the buffer and may run
+ * concurrently.
+ *
+ * Example:
+ *   OrderFile.write(Path.of("orders.bin"), products, orders);
+ *   OrderFile file = OrderFile.open(Path.of("orders.bin"));
+ *   file.getRevenueByCustomer();
+ */
+public final class OrderFile {
+
+    static final int MAGIC = 0x4F524452;   // "ORDR"
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 48;
+    private static final int PRODUCT_SIZE = 24;
+    private static final int ORDER_SIZE = 24;
+    private static final int ITEM_SIZE = 8;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int productCount;
+    private final int orderCount;
+    private final int itemCount;
+    private final int stringOffsets;
+    private final int stringData;
+    private final int products;
+    private final int orders;
+    private final int items;
+    // Decoded on first use; concurrent queries may decode the same entry twice, which is harmless
+    private final String[] strings;
+    private final Product[] productCache;
+    private final OrderTable table = new Table();
+
+    private OrderFile(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an order file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported order file version: " + buffer.getInt(4));
+        }
+        this.stringCount = buffer.getInt(8);
+        this.productCount = buffer.getInt(12);
+        this.orderCount = buffer.getInt(16);
+        this.itemCount = buffer.getInt(20);
+        this.stringOffsets = buffer.getInt(24);
+        this.stringData = buffer.getInt(28);
+        this.products = buffer.getInt(32);
+        this.orders = buffer.getInt(36);
+        this.items = buffer.getInt(40);
+        if (stringCount < 0 || productCount < 0 || orderCount < 0 || itemCount < 0) {
+            throw new IllegalArgumentException("Corrupt order file header: negative record count");
+        }
+        if (buffer.getInt(44) != 0) {
+            throw new IllegalArgumentException("Corrupt order file header: reserved field is set");
+        }
+        // Every section must lie inside the file, after the one before it
+        long end = checkSection("string offsets", stringOffsets, 4L * stringCount + 4, HEADER_SIZE);
+        if (buffer.getInt(stringOffsets) != 0) {
+            throw new IllegalArgumentException("Corrupt order file header: string offsets do not start at 0");
+        }
+        end = checkSection("string data", stringData, buffer.getInt(stringOffsets + 4 * stringCount), end);
+        end = checkSection("products", products, (long) PRODUCT_SIZE * productCount, end);
+        end = checkSection("orders", orders, (long) ORDER_SIZE * orderCount, end);
+        checkSection("items", items, (long) ITEM_SIZE * itemCount, end);
+        this.strings = new String[stringCount];
+        this.productCache = new Product[productCount];
+    }
+
+    /**
+     * Maps the file read-only.
+     *
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if it is not an order file, its header is
+     *         inconsistent with its size, or it is too large to map
+     */
+    public static OrderFile open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Order file too large to map: " + channel.size());
+            }
+            // The mapping stays valid after the channel is closed
+            return new OrderFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + file, e);
+        }
+    }
+
+    /**
+     * Writes the catalog and orders. Products that appear in an order but
+     * not in the catalog are added to it.
+     *
+     * The data goes to a temporary file in the same directory, which is
+     * forced to disk and then moved over the target (atomically where the
+     * file system allows). Files already opened keep reading the old data.
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     * @throws IllegalArgumentException if the data does not fit in 2 GB
+     */
+    public static void write(Path file, List<Product> catalog, List<CustomerOrder> customerOrders) {
+        Dictionary<String> strings = new Dictionary<>();
+        Dictionary<Product> productCodes = new Dictionary<>();
+        catalog.forEach(productCodes::encode);
+        int itemTotal = 0;
+        for (CustomerOrder order : customerOrders) {
+            order.items().forEach(item -> productCodes.encode(item.product()));
+            itemTotal += order.items().size();
+        }
+        int[] productStrings = new int[productCodes.size() * 3];
+        for (int p = 0; p < productCodes.size(); p++) {
+            Product product = productCodes.decode(p);
+            productStrings[3 * p] = strings.encode(product.id());
+            productStrings[3 * p + 1] = strings.encode(product.name());
+            productStrings[3 * p + 2] = strings.encode(product.category());
+        }
+        int[] orderStrings = new int[customerOrders.size() * 2];
+        for (int o = 0; o < customerOrders.size(); o++) {
+            orderStrings[2 * o] = strings.encode(customerOrders.get(o).id());
+            orderStrings[2 * o + 1] = strings.encode(customerOrders.get(o).customerId());
+        }
+        byte[][] encoded = strings.values().stream()
+                .map(s -> s.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        long dataLength = Arrays.stream(encoded).mapToLong(bytes -> bytes.length).sum();
+
+        long stringOffsets = HEADER_SIZE;
+        long stringData = stringOffsets + 4L * (encoded.length + 1);
+        long productsStart = align(stringData + dataLength);
+        long ordersStart = productsStart + (long) PRODUCT_SIZE * productCodes.size();
+        long itemsStart = ordersStart + (long) ORDER_SIZE * customerOrders.size();
+        long size = itemsStart + (long) ITEM_SIZE * itemTotal;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Order data too large for one file: " + size + " bytes");
+        }
+
+        // Written next to the target and moved over it once complete, so a
+        // reader or a crash never sees a half-written file
+        Path target = file.toAbsolutePath();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                ByteBuffer out = mapped.order(ByteOrder.LITTLE_ENDIAN);
+                out.putInt(MAGIC).putInt(VERSION)
+                        .putInt(encoded.length).putInt(productCodes.size())
+                        .putInt(customerOrders.size()).putInt(itemTotal)
+                        .putInt((int) stringOffsets).putInt((int) stringData)
+                        .putInt((int) productsStart).putInt((int) ordersStart)
+                        .putInt((int) itemsStart).putInt(0);
+
+                int offset = 0;
+                for (byte[] bytes : encoded) {
+                    out.putInt(offset);
+                    offset += bytes.length;
+                }
+                out.putInt(offset);
+                for (byte[] bytes : encoded) {
+                    out.put(bytes);
+                }
+
+                out.position((int) productsStart);
+                for (int p = 0; p < productCodes.size(); p++) {
+                    out.putInt(productStrings[3 * p]).putInt(productStrings[3 * p + 1])
+                            .putInt(productStrings[3 * p + 2]).putInt(0)
+                            .putDouble(productCodes.decode(p).price());
+                }
+
+                int firstItem = 0;
+                for (int o = 0; o < customerOrders.size(); o++) {
+                    CustomerOrder order = customerOrders.get(o);
+                    out.putInt(orderStrings[2 * o]).putInt(orderStrings[2 * o + 1])
+                            .putInt((int) order.orderDate().toEpochDay()).putInt(order.status().ordinal())
+                            .putInt(firstItem).putInt(order.items().size());
+                    firstItem += order.items().size();
+                }
+
+                for (CustomerOrder order : customerOrders) {
+                    for (OrderItem item : order.items()) {
+                        out.putInt(productCodes.indexOf(item.product())).putInt(item.quantity());
+                    }
+                }
+
+                mapped.force();
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public int orderCount() {
+        return orderCount;
+    }
+
+    public int itemCount() {
+        return itemCount;
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    // =========================================================================
+    // PART 1: Basic Analytics
+    // =========================================================================
+
+    /**
+     * Total revenue from all DELIVERED orders.
+     */
+    public double getTotalRevenue() {
+        return OrderAnalytics.totalRevenue(table);
+    }
+
+    /**
+     * Number of orders with the given status.
+     */
+    public long getOrderCount(OrderStatus status) {
+        return OrderAnalytics.orderCount(table, status);
+    }
+
+    /**
+     * Average value of DELIVERED orders.
+     *
+     * @throws NoSuchElementException if there are no delivered orders
+     */
+    public double getAverageOrderValue() {
+        return OrderAnalytics.averageOrderValue(table, getTotalRevenue());
+    }
+
+    // =========================================================================
+    // PART 2: Customer Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by customer id (DELIVERED orders only).
+     */
+    public Map<String, Double> getRevenueByCustomer() {
+        return OrderAnalytics.revenueByCustomer(table);
+    }
+
+    /**
+     * Top N customer ids by revenue (DELIVERED orders), highest first, ties by id.
+     */
+    public List<String> getTopCustomers(int n) {
+        return OrderAnalytics.topCustomers(table, n);
+    }
+
+    /**
+     * Number of orders per customer id (any status).
+     */
+    public Map<String, Long> getCustomerOrderCounts() {
+        return OrderAnalytics.customerOrderCounts(table);
+    }
+
+    // =========================================================================
+    // PART 3: Product Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by category (DELIVERED orders only).
+     */
+    public Map<String, Double> getRevenueByCategory() {
+        return OrderAnalytics.revenueByCategory(getCategorySummary());
+    }
+
+    /**
+     * Top N products by quantity sold (any status), highest first, ties by product id.
+     */
+    public List<Product> getTopSellingProducts(int n) {
+        return OrderAnalytics.topSellingProducts(table, n);
+    }
+
+    /**
+     * Quantity sold per product id (products that were ordered, any status).
+     */
+    public Map<String, Integer> getProductQuantitySold() {
+        return OrderAnalytics.productQuantitySold(table);
+    }
+
+    /**
+     * Revenue and quantity per category (DELIVERED orders only).
+     */
+    public Map<String, CategorySummary> getCategorySummary() {
+        return OrderAnalytics.categorySummary(table);
+    }
+
+    // =========================================================================
+    // PART 4: Time-Based Analytics
+    // =========================================================================
+
+    /**
+     * Revenue by month (DELIVERED orders only).
+     */
+    public Map<YearMonth, Double> getMonthlyRevenue() {
+        return OrderAnalytics.monthlyRevenue(table);
+    }
+
+    /**
+     * Number of orders per date.
+     */
+    public Map<LocalDate, Long> getDailyOrderCounts() {
+        return OrderAnalytics.dailyOrderCounts(table);
+    }
+
+    // =========================================================================
+    // RECORDS
+    // =========================================================================
+
+    /**
+     * The product catalog, in file order.
+     */
+    public List<Product> products() {
+        List<Product> result = new ArrayList<>(productCount);
+        for (int p = 0; p < productCount; p++) {
+            result.add(table.product(p));
+        }
+        return result;
+    }
+
+    /**
+     * Rebuilds the order at the given position as a {@link CustomerOrder}.
+     */
+    public CustomerOrder order(int o) {
+        List<OrderItem> orderItems = new ArrayList<>(table.endItem(o) - table.firstItem(o));
+        for (int i = table.firstItem(o); i < table.endItem(o); i++) {
+            orderItems.add(new OrderItem(table.product(table.itemProduct(i)), table.itemQuantity(i)));
+        }
+        return new CustomerOrder(string(buffer.getInt(orders + o * ORDER_SIZE)), string(table.customer(o)),
+                List.copyOf(orderItems), LocalDate.ofEpochDay(table.day(o)), STATUSES[table.status(o)]);
+    }
+
+    /**
+     * Every order rebuilt as a {@link CustomerOrder}, in file order.
+     */
+    public List<CustomerOrder> orders() {
+        List<CustomerOrder> result = new ArrayList<>(orderCount);
+        for (int o = 0; o < orderCount; o++) {
+            result.add(order(o));
+        }
+        return result;
+    }
+
+    /**
+     * Loads the file into a {@link StreamHomework}, for the queries and
+     * updates that need the order objects.
+     */
+    public StreamHomework toHomework() {
+        return new StreamHomework(products(), orders());
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    /**
+     * The mapped records seen through {@link OrderTable}, for {@link OrderAnalytics}.
+     * String numbers serve as customer codes.
+     */
+    private final class Table implements OrderTable {
+        @Override
+        public int orderCount() {
+            return orderCount;
+        }
+
+        @Override
+        public int status(int o) {
+            return buffer.getInt(orders + o * ORDER_SIZE + 12);
+        }
+
+        @Override
+        public int customer(int o) {
+            return buffer.getInt(orders + o * ORDER_SIZE + 4);
+        }
+
+        @Override
+        public int day(int o) {
+            return buffer.getInt(orders + o * ORDER_SIZE + 8);
+        }
+
+        @Override
+        public int firstItem(int o) {
+            return buffer.getInt(orders + o * ORDER_SIZE + 16);
+        }
+
+        @Override
+        public int endItem(int o) {
+            return firstItem(o) + buffer.getInt(orders + o * ORDER_SIZE + 20);
+        }
+
+        @Override
+        public int itemProduct(int i) {
+            return buffer.getInt(items + i * ITEM_SIZE);
+        }
+
+        @Override
+        public int itemQuantity(int i) {
+            return buffer.getInt(items + i * ITEM_SIZE + 4);
+        }
+
+        @Override
+        public double itemPrice(int i) {
+            return buffer.getDouble(products + itemProduct(i) * PRODUCT_SIZE + 16);
+        }
+
+        @Override
+        public int customerCount() {
+            return stringCount;
+        }
+
+        @Override
+        public String customerId(int c) {
+            return string(c);
+        }
+
+        @Override
+        public int productCount() {
+            return productCount;
+        }
+
+        @Override
+        public Product product(int p) {
+            Product result = productCache[p];
+            if (result == null) {
+                int base = products + p * PRODUCT_SIZE;
+                result = new Product(string(buffer.getInt(base)), string(buffer.getInt(base + 4)),
+                        string(buffer.getInt(base + 8)), buffer.getDouble(base + 16));
+                productCache[p] = result;
+            }
+            return result;
+        }
+    }
+
+    private String string(int s) {
+        String result = strings[s];
+        if (result == null) {
+            int start = buffer.getInt(stringOffsets + 4 * s);
+            byte[] bytes = new byte[buffer.getInt(stringOffsets + 4 * s + 4) - start];
+            buffer.get(stringData + start, bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+            strings[s] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Checks that a section of the given length starts at or after notBefore
+     * and ends within the buffer, and returns its end.
+     *
+     * @throws IllegalArgumentException otherwise
+     */
+    private long checkSection(String name, int start, long length, long notBefore) {
+        if (length < 0 || start < notBefore || start + length > buffer.limit()) {
+            throw new IllegalArgumentException("Corrupt order file header: " + name + " section at " + start
+                    + " with " + length + " bytes does not fit");
+        }
+        return start + length;
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // The write already failed; that error is the one reported
+            }
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
@@ -0,0 +1,150 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+
+/**
+ * Dictionary-encoded grouping keys of an order list.
+ *
+ * Customer ids, product ids and categories are each mapped to dense int
+ * codes by a {@link Dictionary} when the orders are loaded. For every order
+ * position the customer code is kept, and for every line item (in order,
+ * flattened) the product code; each product code knows its category code.
+ * Aggregations group by these codes into primitive arrays (see
+ * {@link CodeTotals}) and decode to strings only when building the result.
+ *
+ * Positions match the order list the keys were built from; appending with
+ * {@link #add(CustomerOrder)} keeps them in step. Not thread-safe.
+ */
+public final class OrderKeys {
+
+    private final Dictionary<String> customers = new Dictionary<>();
+    private final Dictionary<String> productIds = new Dictionary<>();
+    private final Dictionary<String> categories = new Dictionary<>();
+    private final List<Product> products = new ArrayList<>();
+    private int[] productCategory = new int[16];
+
+    private int orderCount;
+    private int[] orderCustomer;
+    private int[] itemOffsets;
+    private int itemCount;
+    private int[] itemProduct;
+
+    private OrderKeys(int orders, int items) {
+        orderCustomer = new int[Math.max(16, orders)];
+        itemOffsets = new int[Math.max(16, orders) + 1];
+        itemProduct = new int[Math.max(16, items)];
+    }
+
+    /**
+     * Encodes the keys of the given orders.
+     */
+    public static OrderKeys of(List<CustomerOrder> orders) {
+        int items = 0;
+        for (CustomerOrder order : orders) {
+            items += order.getItemCount();
+        }
+        OrderKeys keys = new OrderKeys(orders.size(), items);
+        for (CustomerOrder order : orders) {
+            keys.add(order);
+        }
+        return keys;
+    }
+
+    /**
+     * Encodes the keys of an order appended to the list.
+     */
+    public void add(CustomerOrder order) {
+        if (orderCount + 1 >= itemOffsets.length) {
+            orderCustomer = Arrays.copyOf(orderCustomer, orderCustomer.length * 2);
+            itemOffsets = Arrays.copyOf(itemOffsets, orderCustomer.length + 1);
+        }
+        if (itemCount + order.items().size() > itemProduct.length) {
+            itemProduct = Arrays.copyOf(itemProduct, Math.max(itemProduct.length * 2, itemCount + order.items().size()));
+        }
+        orderCustomer[orderCount] = customers.encode(order.customerId());
+        itemOffsets[orderCount] = itemCount;
+        for (OrderItem item : order.items()) {
+            itemProduct[itemCount++] = encode(item.product());
+        }
+        orderCount++;
+        itemOffsets[orderCount] = itemCount;
+    }
+
+    // =========================================================================
+    // CODES
+    // =========================================================================
+
+    /**
+     * Number of orders encoded.
+     */
+    public int orderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Item offsets: entry o is the number of items before order o, for
+     * o = 0..orderCount(). The array may be longer than that and is replaced
+     * when it grows, so callers must not keep it across add.
+     */
+    int[] itemOffsets() {
+        return itemOffsets;
+    }
+
+    /**
+     * Customer code of the order at the given position.
+     */
+    public int customer(int order) {
+        return orderCustomer[order];
+    }
+
+    /**
+     * Product code of the order's item-th line item.
+     */
+    public int product(int order, int item) {
+        return itemProduct[itemOffsets[order] + item];
+    }
+
+    /**
+     * Category code of a product code.
+     */
+    public int category(int product) {
+        return productCategory[product];
+    }
+
+    // =========================================================================
+    // DICTIONARIES
+    // =========================================================================
+
+    public Dictionary<String> customers() {
+        return customers;
+    }
+
+    public Dictionary<String> productIds() {
+        return productIds;
+    }
+
+    public Dictionary<String> categories() {
+        return categories;
+    }
+
+    /**
+     * The product for a product code (the first one seen with that id).
+     */
+    public Product decodeProduct(int code) {
+        return products.get(code);
+    }
+
+    private int encode(Product product) {
+        int code = productIds.encode(product.id());
+        if (code == products.size()) {
+            products.add(product);
+            if (code == productCategory.length) {
+                productCategory = Arrays.copyOf(productCategory, code * 2);
+            }
+            productCategory[code] = categories.encode(product.category());
+        }
+        return code;
+    }
+}
@@ -0,0 +1,253 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterators over an order list that split on line-item weight.
+ *
+ * A parallel stream over an ArrayList splits it by order count, so when a
+ * few orders hold most of the items one thread ends up with most of the
+ * work. Both spliterators here use the item offsets (offsets[o] = number of
+ * items before order o, see {@link #itemOffsets}) to split where the items,
+ * not the orders, are halved:
+ *
+ * - {@link #items}: every line item, flattened without a nested Stream per
+ *   order; a split may fall inside a large order
+ * - {@link #orderPositions}: order positions, split so both halves carry
+ *   about the same number of items; for per-order aggregations such as
+ *   {@link CodeTotals#collect(int, IntStream, java.util.function.ObjIntConsumer)}
+ *
+ * Example:
+ *   OrderSpliterators.items(orders, true)
+ *           .map(OrderItem::product)
+ *           .collect(Collectors.toSet());
+ */
+public final class OrderSpliterators {
+
+    private OrderSpliterators() {
+    }
+
+    /**
+     * Item offsets of the orders: offsets[o] is the number of items in
+     * orders 0..o-1, and offsets[orders.size()] the total.
+     */
+    public static int[] itemOffsets(List<CustomerOrder> orders) {
+        int[] offsets = new int[orders.size() + 1];
+        for (int o = 0; o < orders.size(); o++) {
+            offsets[o + 1] = offsets[o] + orders.get(o).items().size();
+        }
+        return offsets;
+    }
+
+    /**
+     * Every line item of the orders, in order.
+     */
+    public static Stream<OrderItem> items(List<CustomerOrder> orders, boolean parallel) {
+        return items(orders, itemOffsets(orders), orders.size(), parallel);
+    }
+
+    /**
+     * Every line item of the first orderCount orders, using precomputed offsets.
+     */
+    public static Stream<OrderItem> items(List<CustomerOrder> orders, int[] itemOffsets, int orderCount,
+                                          boolean parallel) {
+        return StreamSupport.stream(
+                new ItemSpliterator(orders, itemOffsets, orderCount, 0, itemOffsets[orderCount], 0), parallel);
+    }
+
+    /**
+     * Positions 0..orderCount-1, split by the number of items in each half.
+     */
+    public static IntStream orderPositions(int[] itemOffsets, int orderCount, boolean parallel) {
+        return StreamSupport.intStream(new OrderSpliterator(itemOffsets, 0, orderCount), parallel);
+    }
+
+    /**
+     * Passes the order's items to the sink with an indexed loop, creating no
+     * stream or iterator; for Stream.mapMulti in place of
+     * flatMap(order -> order.items().stream()):
+     *   orders.stream().<OrderItem>mapMulti(OrderSpliterators::expandItems)
+     */
+    public static void expandItems(CustomerOrder order, Consumer<? super OrderItem> sink) {
+        List<OrderItem> items = order.items();
+        for (int i = 0; i < items.size(); i++) {
+            sink.accept(items.get(i));
+        }
+    }
+
+    // =========================================================================
+    // LINE ITEMS
+    // =========================================================================
+
+    /**
+     * Items [item, fence) in flattened numbering; order is the order holding item.
+     */
+    private static final class ItemSpliterator implements Spliterator<OrderItem> {
+        private final List<CustomerOrder> orders;
+        private final int[] offsets;
+        private final int orderCount;
+        private int item;
+        private final int fence;
+        private int order;
+
+        ItemSpliterator(List<CustomerOrder> orders, int[] offsets, int orderCount, int item, int fence, int order) {
+            this.orders = orders;
+            this.offsets = offsets;
+            this.orderCount = orderCount;
+            this.item = item;
+            this.fence = fence;
+            this.order = order;
+        }
+
+        @Override
+        public Spliterator<OrderItem> trySplit() {
+            if (fence - item < 2) {
+                return null;
+            }
+            int mid = (item + fence) >>> 1;
+            int midOrder = orderOf(mid);
+            Spliterator<OrderItem> prefix = new ItemSpliterator(orders, offsets, orderCount, item, mid, order);
+            item = mid;
+            order = midOrder;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super OrderItem> action) {
+            if (item >= fence) {
+                return false;
+            }
+            while (offsets[order + 1] <= item) {
+                order++;
+            }
+            action.accept(orders.get(order).items().get(item - offsets[order]));
+            item++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super OrderItem> action) {
+            while (item < fence) {
+                while (offsets[order + 1] <= item) {
+                    order++;
+                }
+                List<OrderItem> items = orders.get(order).items();
+                int first = offsets[order];
+                int end = Math.min(fence, offsets[order + 1]);
+                for (int i = item; i < end; i++) {
+                    action.accept(items.get(i - first));
+                }
+                item = end;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - item;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        /**
+         * The order holding the given item: the last order starting at or before it.
+         */
+        private int orderOf(int target) {
+            int low = order;
+            int high = orderCount - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (offsets[mid] <= target) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    // =========================================================================
+    // ORDER POSITIONS
+    // =========================================================================
+
+    /**
+     * Orders [low, high). Each order weighs its item count plus one, so empty
+     * orders still count; estimateSize reports the weight, which is what the
+     * stream framework uses to decide how far to split.
+     */
+    private static final class OrderSpliterator implements Spliterator.OfInt {
+        private final int[] offsets;
+        private int low;
+        private final int high;
+
+        OrderSpliterator(int[] offsets, int low, int high) {
+            this.offsets = offsets;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            if (high - low < 2) {
+                return null;
+            }
+            // weight(0, o) = offsets[o] + o increases strictly with o
+            long target = weight(low) + (weight(high) - weight(low)) / 2;
+            int from = low + 1;
+            int to = high - 1;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (weight(mid) < target) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            OfInt prefix = new OrderSpliterator(offsets, low, from);
+            low = from;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (low >= high) {
+                return false;
+            }
+            action.accept(low++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int o = low;
+            low = high;
+            for (; o < high; o++) {
+                action.accept(o);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return weight(high) - weight(low);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+
+        private long weight(int o) {
+            return (long) offsets[o] + o;
+        }
+    }
+}
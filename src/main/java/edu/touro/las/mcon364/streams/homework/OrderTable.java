@@ -0,0 +1,69 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.stream.IntStream;
+
+/**
+ * Read access to orders and line items stored by number, for the shared
+ * loops in {@link OrderAnalytics}.
+ *
+ * Orders are numbered 0..orderCount()-1 and the items of order o are the
+ * numbers firstItem(o)..endItem(o)-1. Customers and products are referred
+ * to by dense codes, 0..customerCount()-1 and 0..productCount()-1; a code
+ * may have no orders or items (e.g. a catalog product never ordered).
+ *
+ * {@link OrderColumns}, {@link OrderFile} and {@link OffHeapOrders} each
+ * implement it over their own storage, privately, so the accessors do not
+ * become part of their public API.
+ */
+interface OrderTable {
+
+    int orderCount();
+
+    /**
+     * Order numbers 0..orderCount()-1, sequential or parallel as the storage chooses.
+     */
+    default IntStream orders() {
+        return IntStream.range(0, orderCount());
+    }
+
+    /**
+     * Status ordinal of the order.
+     */
+    int status(int o);
+
+    /**
+     * Customer code of the order.
+     */
+    int customer(int o);
+
+    /**
+     * Order date as an epoch day.
+     */
+    int day(int o);
+
+    int firstItem(int o);
+
+    int endItem(int o);
+
+    /**
+     * Product code of the line item.
+     */
+    int itemProduct(int i);
+
+    int itemQuantity(int i);
+
+    /**
+     * Unit price of the line item.
+     */
+    double itemPrice(int i);
+
+    int customerCount();
+
+    String customerId(int c);
+
+    int productCount();
+
+    Product product(int p);
+}
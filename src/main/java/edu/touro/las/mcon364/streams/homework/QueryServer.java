@@ -0,0 +1,285 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * HTTP front end for the {@link StreamHomework} analytics, on the JDK's
+ * com.sun.net.httpserver with one virtual thread per request.
+ *
+ * Every query is a GET returning JSON (see {@link #paths()}), e.g.
+ *   /revenue                          → 6159.8
+ *   /top-customers?n=3                → ["C004","C001","C006"]
+ *   /orders?start=2024-02-01&end=2024-02-28
+ *
+ * Connections are kept alive between requests (HTTP/1.1). Run the JVM with
+ * -Dsun.net.httpserver.nodelay=true: the JDK server reads it once, when the
+ * first server is created, and without TCP_NODELAY a chunked response can
+ * wait ~40 ms for a delayed ACK (Nagle) on every kept-alive request. main
+ * sets it when it was not given.
+ *
+ * Scalar results are sent with a Content-Length; maps and lists are written
+ * to the socket as they are serialized, with chunked encoding, so a large
+ * result is never held as one JSON string. Bad parameters get 400, unknown
+ * paths 404, queries without a result (e.g. no delivered orders for
+ * /average-order-value) 404, and other methods than GET 405; the body is
+ * then {"error": "..."}. The bonus queries still marked TODO are not served
+ * until they are implemented.
+ *
+ * Queries run concurrently under StreamHomework's read lock; addOrder and
+ * updateStatus on the same instance are safe while the server runs.
+ *
+ * Example:
+ *   try (QueryServer server = QueryServer.start(hw, 8080)) { ... }
+ * or from the command line (port 0 picks a free one):
+ *   java -cp target/classes edu.touro.las.mcon364.streams.homework.QueryServer 8080
+ */
+public final class QueryServer implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    // Read once by the JDK server, when the first one is created
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Function<Parameters, Object>> routes;
+
+    private QueryServer(HttpServer server, ExecutorService executor, Map<String, Function<Parameters, Object>> routes) {
+        this.server = server;
+        this.executor = executor;
+        this.routes = routes;
+    }
+
+    /**
+     * Serves the analytics of hw on the loopback interface.
+     *
+     * @param port the port, or 0 for any free port
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public static QueryServer start(StreamHomework hw, int port) {
+        return start(hw, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Serves the analytics of hw on the given address.
+     *
+     * @throws UncheckedIOException if the address cannot be bound
+     */
+    public static QueryServer start(StreamHomework hw, InetSocketAddress address) {
+        Objects.requireNonNull(hw, "hw");
+        HttpServer server;
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bind " + address, e);
+        }
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        QueryServer queryServer = new QueryServer(server, executor, routes(hw));
+        server.setExecutor(executor);
+        server.createContext("/", queryServer::handle);
+        server.start();
+        return queryServer;
+    }
+
+    /**
+     * The port the server listens on.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * The paths served, in alphabetical order.
+     */
+    public Set<String> paths() {
+        return routes.keySet();
+    }
+
+    /**
+     * Stops accepting connections and waits for running requests to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    // =========================================================================
+    // ROUTES
+    // =========================================================================
+
+    private static Map<String, Function<Parameters, Object>> routes(StreamHomework hw) {
+        Map<String, Function<Parameters, Object>> routes = new TreeMap<>();
+        routes.put("/revenue", p -> hw.getTotalRevenue());
+        routes.put("/order-count", p -> hw.getOrderCount(p.status("status")));
+        routes.put("/unique-products", p -> hw.getUniqueProducts());
+        routes.put("/average-order-value", p -> hw.getAverageOrderValue());
+        routes.put("/revenue-by-customer", p -> hw.getRevenueByCustomer());
+        routes.put("/top-customers", p -> hw.getTopCustomers(p.count("n")));
+        routes.put("/customer-order-counts", p -> hw.getCustomerOrderCounts());
+        routes.put("/customers-with-multiple-orders", p -> hw.getCustomersWithMultipleOrders());
+        routes.put("/revenue-by-category", p -> hw.getRevenueByCategory());
+        routes.put("/top-products", p -> hw.getTopSellingProducts(p.count("n")));
+        routes.put("/product-quantity-sold", p -> hw.getProductQuantitySold());
+        routes.put("/category-summary", p -> hw.getCategorySummary());
+        routes.put("/orders-by-month", p -> hw.getOrdersByMonth());
+        routes.put("/monthly-revenue", p -> hw.getMonthlyRevenue());
+        routes.put("/orders", p -> hw.getOrdersInDateRange(p.date("start"), p.date("end")));
+        routes.put("/daily-order-counts", p -> hw.getDailyOrderCounts());
+        routes.put("/daily-revenue", p -> hw.getDailyRevenue());
+        return Collections.unmodifiableMap(routes);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Drain the request so the connection can be reused
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+                return;
+            }
+            Function<Parameters, Object> route = routes.get(exchange.getRequestURI().getPath());
+            if (route == null) {
+                sendError(exchange, 404, "Unknown query: " + exchange.getRequestURI().getPath());
+                return;
+            }
+            Object result;
+            try {
+                result = route.apply(Parameters.parse(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            } catch (NoSuchElementException e) {
+                sendError(exchange, 404, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                sendError(exchange, 500, String.valueOf(e));
+                return;
+            }
+            if (result == null) {
+                sendError(exchange, 404, "No result: " + exchange.getRequestURI().getPath());
+                return;
+            }
+            send(exchange, result);
+        }
+    }
+
+    private static void send(HttpExchange exchange, Object result) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (result instanceof Map<?, ?> || result instanceof Collection<?>) {
+            // Length unknown until written: chunked
+            exchange.sendResponseHeaders(200, 0);
+            try (Writer out = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                Json.write(result, out);
+            }
+        } else {
+            sendBody(exchange, 200, Json.toJson(result));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        sendBody(exchange, status, Json.toJson(Map.of("error", String.valueOf(message))));
+    }
+
+    private static void sendBody(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // =========================================================================
+    // PARAMETERS
+    // =========================================================================
+
+    /**
+     * Decoded query-string parameters; the typed getters throw
+     * IllegalArgumentException (→ 400) for missing or malformed values.
+     */
+    private record Parameters(Map<String, String> values) {
+
+        static Parameters parse(String rawQuery) {
+            Map<String, String> values = new HashMap<>();
+            if (rawQuery != null && !rawQuery.isEmpty()) {
+                for (String pair : rawQuery.split("&")) {
+                    int equals = pair.indexOf('=');
+                    String name = equals < 0 ? pair : pair.substring(0, equals);
+                    String value = equals < 0 ? "" : pair.substring(equals + 1);
+                    values.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                            URLDecoder.decode(value, StandardCharsets.UTF_8));
+                }
+            }
+            return new Parameters(values);
+        }
+
+        String required(String name) {
+            String value = values.get(name);
+            if (value == null || value.isEmpty()) {
+                throw new IllegalArgumentException("Missing parameter: " + name);
+            }
+            return value;
+        }
+
+        int count(String name) {
+            String value = required(name);
+            try {
+                int n = Integer.parseInt(value);
+                if (n < 0) {
+                    throw new IllegalArgumentException("Negative " + name + ": " + value);
+                }
+                return n;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + name + "=" + value);
+            }
+        }
+
+        LocalDate date(String name) {
+            String value = required(name);
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Not a date (yyyy-mm-dd): " + name + "=" + value);
+            }
+        }
+
+        OrderStatus status(String name) {
+            String value = required(name);
+            try {
+                return OrderStatus.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status: " + value);
+            }
+        }
+    }
+
+    /**
+     * Serves the sample data until the process is stopped.
+     * Usage: QueryServer [port]   (default 8080)
+     */
+    public static void main(String[] args) {
+        if (System.getProperty(NODELAY) == null) {
+            System.setProperty(NODELAY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        QueryServer server = start(new StreamHomework(), port);
+        System.out.println("Serving " + server.paths() + " on http://localhost:" + server.port());
+    }
+}
@@ -0,0 +1,117 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.util.Optional;
+
+/**
+ * Multiply-accumulate kernels over line-item columns: price[i] * quantity[i]
+ * for the items whose include[i] flag is set (e.g. items of DELIVERED orders).
+ *
+ * Two implementations exist:
+ *
+ * - scalar: plain loops, always available
+ * - vector: jdk.incubator.vector, processing one SIMD register of items per
+ *   step with the include flags as a lane mask
+ *
+ * {@link #best()} picks the vector kernels when the JVM was started with
+ * --add-modules jdk.incubator.vector and falls back to the scalar ones
+ * otherwise. The vector sums add in a different order, so results can
+ * differ from the scalar ones in the last bits.
+ *
+ * Example:
+ *   double delivered = RevenueKernels.best().sum(price, quantity, delivered, 0, price.length);
+ */
+public abstract class RevenueKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private static final RevenueKernels SCALAR = new Scalar();
+    private static final Optional<RevenueKernels> VECTOR = loadVector();
+
+    RevenueKernels() {
+    }
+
+    /**
+     * The scalar kernels.
+     */
+    public static RevenueKernels scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * The vector kernels, or empty if the incubator module is not loaded.
+     */
+    public static Optional<RevenueKernels> vector() {
+        return VECTOR;
+    }
+
+    /**
+     * The vector kernels if available, otherwise the scalar ones.
+     */
+    public static RevenueKernels best() {
+        return VECTOR.orElse(SCALAR);
+    }
+
+    /**
+     * Short name for reports ("scalar" or "vector").
+     */
+    public abstract String name();
+
+    /**
+     * Sum of price[i] * quantity[i] over from <= i < to where include[i] is set.
+     */
+    public abstract double sum(double[] price, int[] quantity, boolean[] include, int from, int to);
+
+    /**
+     * Writes price[i] * quantity[i], or 0 where include[i] is not set, to
+     * out[i - from] for from <= i < to.
+     */
+    public abstract void lineTotals(double[] price, int[] quantity, boolean[] include, int from, int to, double[] out);
+
+    @Override
+    public String toString() {
+        return name();
+    }
+
+    /**
+     * Instantiates the vector kernels by name, so this class loads without
+     * the incubator module.
+     */
+    private static Optional<RevenueKernels> loadVector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Class<?> kernels = Class.forName(RevenueKernels.class.getPackageName() + ".VectorRevenueKernels");
+            return Optional.of((RevenueKernels) kernels.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // No usable vector shape on this platform
+            return Optional.empty();
+        }
+    }
+
+    private static final class Scalar extends RevenueKernels {
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public double sum(double[] price, int[] quantity, boolean[] include, int from, int to) {
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                if (include[i]) {
+                    sum += price[i] * quantity[i];
+                }
+            }
+            return sum;
+        }
+
+        @Override
+        public void lineTotals(double[] price, int[] quantity, boolean[] include, int from, int to, double[] out) {
+            for (int i = from; i < to; i++) {
+                out[i - from] = include[i] ? price[i] * quantity[i] : 0;
+            }
+        }
+    }
+}
@@ -1,8 +1,27 @@
 package edu.touro.las.mcon364.streams.homework;
 
+import java.nio.file.Path;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import edu.touro.las.mcon364.streams.homework.MaterializedViews.Dependency;
+import edu.touro.las.mcon364.streams.homework.OrderAggregates.Metric;
+import edu.touro.las.mcon364.streams.metrics.QueryEvent;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+import edu.touro.las.mcon364.streams.metrics.StageEvent;
 
 /**
  * Homework: E-Commerce Order Analytics
@@ -34,20 +53,72 @@ public class StreamHomework {
         }
     }
     
+    /**
+     * Totals of an order, computed once from its items.
+     */
+    public record OrderTotals(double revenue, int itemCount, int units) {
+        public static OrderTotals of(List<OrderItem> items) {
+            double revenue = 0;
+            int units = 0;
+            for (OrderItem item : items) {
+                revenue += item.getLineTotal();
+                units += item.quantity();
+            }
+            return new OrderTotals(revenue, items.size(), units);
+        }
+    }
+    
     /**
      * Represents a customer order.
+     * 
+     * The items are copied into an unmodifiable list and their totals are
+     * computed when the order is built, so later changes to the caller's list
+     * cannot make them stale. Totals passed in must equal OrderTotals.of(items).
      */
     public record CustomerOrder(
             String id,
             String customerId,
             List<OrderItem> items,
             LocalDate orderDate,
-            OrderStatus status
+            OrderStatus status,
+            OrderTotals totals
     ) {
+        /**
+         * @throws IllegalArgumentException if totals does not match the items
+         */
+        public CustomerOrder {
+            items = List.copyOf(items);
+            OrderTotals computed = OrderTotals.of(items);
+            if (totals == null) {
+                totals = computed;
+            } else if (!totals.equals(computed)) {
+                throw new IllegalArgumentException("Totals " + totals + " do not match the items of order " + id
+                        + ": " + computed);
+            }
+        }
+        
+        public CustomerOrder(String id, String customerId, List<OrderItem> items,
+                             LocalDate orderDate, OrderStatus status) {
+            this(id, customerId, items, orderDate, status, null);
+        }
+        
         public double getTotal() {
-            return items.stream()
-                    .mapToDouble(OrderItem::getLineTotal)
-                    .sum();
+            return totals.revenue();
+        }
+        
+        public int getItemCount() {
+            return totals.itemCount();
+        }
+        
+        public int getUnits() {
+            return totals.units();
+        }
+        
+        /**
+         * Copy of this order with a new status; the items list is shared.
+         */
+        public CustomerOrder withStatus(OrderStatus newStatus) {
+            return new CustomerOrder(id, customerId, items, orderDate, newStatus, totals);
         }
     }
     
@@ -55,7 +126,15 @@ public class StreamHomework {
      * Order status enumeration.
      */
     public enum OrderStatus {
-        PENDING, SHIPPED, DELIVERED, CANCELLED
+        PENDING, SHIPPED, DELIVERED, CANCELLED;
+        
+        /**
+         * Orders only move forward: PENDING → SHIPPED → DELIVERED → CANCELLED
+         * (steps may be skipped, e.g. a pending order can be cancelled).
+         */
+        public boolean canTransitionTo(OrderStatus next) {
+            return next.ordinal() > ordinal();
+        }
     }
     
     /**
@@ -70,6 +149,36 @@ public class StreamHomework {
     private final List<Product> products;
     private final List<CustomerOrder> customerOrders;
     
+    // How the analytics pipelines run (sequential, common pool or dedicated pool)
+    private ExecutionMode mode = ExecutionMode.sequential();
+    
+    // Queries hold the read lock, addOrder/updateStatus the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Order id → position in customerOrders; built on the first update
+    private Map<String, Integer> positions;
+    
+    // Dictionary codes of customers, products and categories; built at load time
+    private final OrderKeys keys;
+    
+    // Date-sorted, month-partitioned index; built on first use
+    private volatile OrderDateIndex dateIndex;
+    
+    // Bundle computed by prefetch(); the analytics methods read from it when it covers them
+    private OrderAggregates prefetched;
+    
+    // Cached query results; null unless enableMaterializedViews() was called
+    private volatile MaterializedViews views;
+    
+    // Call counts, errors, latencies and rows scanned of every query
+    private final QueryMetrics metrics = new QueryMetrics("StreamHomework");
+    
+    // Rows of a query, read after it ran; an order added meanwhile may or may not be counted
+    private final LongSupplier orderRows = this::orderCount;
+    
+    // Precision of the HyperLogLog sketches behind the approximate distinct counts
+    private int sketchPrecision = HyperLogLog.DEFAULT_PRECISION;
+    
     /**
      * Constructor initializes sample data for testing.
      */
@@ -166,6 +275,431 @@ public class StreamHomework {
                 new OrderItem(products.get(9), 1)   // Jacket
             ),
             LocalDate.of(2024, 3, 20), OrderStatus.SHIPPED));
+        
+        keys = OrderKeys.of(customerOrders);
+    }
+    
+    /**
+     * Constructor for running the analytics over an existing catalog and order list.
+     */
+    public StreamHomework(List<Product> products, List<CustomerOrder> customerOrders) {
+        this.products = List.copyOf(products);
+        this.customerOrders = new ArrayList<>(customerOrders);
+        this.keys = OrderKeys.of(this.customerOrders);
+    }
+    
+    /**
+     * Sets how every analytics method runs its pipeline.
+     */
+    public void setExecutionMode(ExecutionMode mode) {
+        this.mode = Objects.requireNonNull(mode, "mode");
+    }
+    
+    public ExecutionMode getExecutionMode() {
+        return mode;
+    }
+    
+    /**
+     * Sets the precision of the sketches behind the approximate distinct
+     * counts: 2^precision bytes each, relative error about 1.04 / sqrt(2^precision).
+     *
+     * @throws IllegalArgumentException if HyperLogLog does not support the precision
+     */
+    public void setSketchPrecision(int precision) {
+        this.sketchPrecision = HyperLogLog.checkPrecision(precision);
+    }
+    
+    public int getSketchPrecision() {
+        return sketchPrecision;
+    }
+    
+    /**
+     * Per-query call counts, errors, latency histograms and rows scanned,
+     * keyed by method name. Rows are the orders a query ran over; answers
+     * served from prefetch or materialized views count them as well.
+     */
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Shortcut for switching between sequential and common-pool parallel execution.
+     */
+    public void setParallel(boolean parallel) {
+        setExecutionMode(parallel ? ExecutionMode.commonPool() : ExecutionMode.sequential());
+    }
+    
+    /**
+     * Stream over the orders, sequential or parallel depending on the execution mode.
+     */
+    private Stream<CustomerOrder> orders() {
+        return mode.stream(customerOrders);
+    }
+    
+    /**
+     * Every line item, flattened without a Stream per order; parallel splits
+     * halve the items rather than the orders.
+     */
+    private Stream<OrderItem> items() {
+        return OrderSpliterators.items(customerOrders, keys.itemOffsets(), keys.orderCount(), mode.isParallel());
+    }
+    
+    /**
+     * Order positions; parallel splits give each half about the same number of items.
+     */
+    private IntStream orderPositions() {
+        return OrderSpliterators.orderPositions(keys.itemOffsets(), keys.orderCount(), mode.isParallel());
+    }
+    
+    /**
+     * Stream over the orders for per-item work; like orders(), but parallel
+     * splits give each half about the same number of items.
+     */
+    private Stream<CustomerOrder> ordersByItemWeight() {
+        return orderPositions().mapToObj(customerOrders::get);
+    }
+    
+    /**
+     * Grouping collector for keys with many distinct values (days).
+     * In parallel modes all threads share one ConcurrentHashMap instead of building
+     * per-thread maps that have to be merged at the end.
+     * Customers, products and categories are dictionary-encoded instead and
+     * grouped into primitive arrays (see totalsBy).
+     */
+    private <T, K, A, D> Collector<T, ?, ? extends Map<K, D>> groupingByKey(
+            Function<? super T, ? extends K> classifier, Collector<? super T, A, D> downstream) {
+        return mode.isParallel()
+                ? Collectors.groupingByConcurrent(classifier, downstream)
+                : Collectors.groupingBy(classifier, downstream);
+    }
+    
+    /**
+     * Set collector; concurrent in parallel modes.
+     */
+    private <T> Collector<T, ?, Set<T>> toSet() {
+        return mode.isParallel()
+                ? Collector.of(ConcurrentHashMap::newKeySet, Set::add, (a, b) -> { a.addAll(b); return a; },
+                        Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED,
+                        Collector.Characteristics.IDENTITY_FINISH)
+                : Collectors.toSet();
+    }
+    
+    /**
+     * Runs a query under the read lock, using the execution mode, and records
+     * it under the given name in the metrics (time includes the lock wait).
+     */
+    private <R> R query(String name, Supplier<R> body) {
+        return query(name, null, body);
+    }
+    
+    private long orderCount() {
+        return customerOrders.size();
+    }
+    
+    /**
+     * Like {@link #query(String, Supplier)}; the arguments go into the JFR
+     * {@link QueryEvent} of the call.
+     */
+    private <R> R query(String name, Object arguments, Supplier<R> body) {
+        return metrics.time(name, arguments, orderRows, () -> {
+            lock.readLock().lock();
+            try {
+                return mode.execute(body);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Builds a columnar snapshot of the orders. The snapshot offers the same
+     * analytics methods as this class over primitive arrays.
+     */
+    public OrderColumns toColumns() {
+        return query("toColumns", () -> OrderColumns.of(customerOrders));
+    }
+
+    /**
+     * Copies the orders into an off-heap repository whose item-level
+     * analytics run without an object per order or line item.
+     * The caller closes the repository.
+     */
+    public OffHeapOrders toOffHeap() {
+        return query("toOffHeap", () -> OffHeapOrders.of(customerOrders));
+    }
+
+    /**
+     * Saves the catalog and orders in the binary {@link OrderFile} format,
+     * which can be mapped and queried without loading it back.
+     *
+     * @throws java.io.UncheckedIOException if the file cannot be written
+     */
+    public void writeOrderFile(Path file) {
+        query("writeOrderFile", file, () -> {
+            OrderFile.write(file, products, customerOrders);
+            return null;
+        });
+    }
+
+    // =========================================================================
+    // INCREMENTAL INGESTION
+    // =========================================================================
+    
+    /**
+     * Appends a new order.
+     * 
+     * The prefetched bundle and the date index (if built) are updated in
+     * O(items in order) instead of being recomputed; materialized views the
+     * order can change are dropped.
+     * 
+     * @throws IllegalArgumentException if an order with the same id exists
+     */
+    public void addOrder(CustomerOrder order) {
+        Objects.requireNonNull(order, "order");
+        lock.writeLock().lock();
+        try {
+            Map<String, Integer> index = positions();
+            if (index.containsKey(order.id())) {
+                throw new IllegalArgumentException("Duplicate order id: " + order.id());
+            }
+            index.put(order.id(), customerOrders.size());
+            customerOrders.add(order);
+            keys.add(order);
+            if (dateIndex != null) {
+                dateIndex.add(order);
+            }
+            if (prefetched != null) {
+                prefetched.accept(order);
+            }
+            if (views != null) {
+                views.orderAdded(order);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Moves an order to a new status and returns the updated order.
+     * 
+     * The prefetched bundle and the date index (if built) are updated in
+     * O(items in order) instead of being recomputed; materialized views the
+     * change can affect are dropped.
+     * 
+     * @throws NoSuchElementException if there is no order with that id
+     * @throws IllegalStateException if the order cannot move to that status
+     */
+    public CustomerOrder updateStatus(String orderId, OrderStatus newStatus) {
+        Objects.requireNonNull(newStatus, "newStatus");
+        lock.writeLock().lock();
+        try {
+            Integer position = positions().get(orderId);
+            if (position == null) {
+                throw new NoSuchElementException("Unknown order id: " + orderId);
+            }
+            CustomerOrder current = customerOrders.get(position);
+            if (!current.status().canTransitionTo(newStatus)) {
+                throw new IllegalStateException(
+                        "Order " + orderId + " cannot move from " + current.status() + " to " + newStatus);
+            }
+            CustomerOrder updated = current.withStatus(newStatus);
+            customerOrders.set(position, updated);
+            if (dateIndex != null) {
+                dateIndex.replace(current, updated);
+            }
+            if (prefetched != null) {
+                prefetched.remove(current);
+                prefetched.accept(updated);
+            }
+            if (views != null) {
+                views.statusChanged(current, updated);
+            }
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The id → position map, built on first use. Caller holds the write lock.
+     */
+    private Map<String, Integer> positions() {
+        if (positions == null) {
+            positions = new HashMap<>(customerOrders.size() * 2);
+            for (int i = 0; i < customerOrders.size(); i++) {
+                positions.put(customerOrders.get(i).id(), i);
+            }
+        }
+        return positions;
+    }
+    
+    // =========================================================================
+    // SINGLE-PASS AGGREGATION
+    // =========================================================================
+    
+    /**
+     * Computes all requested metrics in one pass over the orders.
+     */
+    public OrderAggregates aggregate(Set<Metric> metrics) {
+        return query("aggregate", metrics, () -> ordersByItemWeight().collect(OrderAggregates.collector(metrics)));
+    }
+    
+    /**
+     * Computes the requested metrics in one pass and keeps the bundle, so the
+     * matching analytics methods return the precomputed results instead of
+     * scanning the orders again. Replaces any earlier prefetch.
+     * 
+     * The bundle stays live: addOrder and updateStatus fold their changes
+     * into it, so the metrics never have to be recomputed. While orders are
+     * being updated from other threads, read it through the analytics methods
+     * rather than through the returned reference.
+     *
+     * Example: prefetch(TOTAL_REVENUE, REVENUE_BY_CUSTOMER, MONTHLY_REVENUE)
+     */
+    public OrderAggregates prefetch(Metric... metrics) {
+        Set<Metric> requested = EnumSet.noneOf(Metric.class);
+        requested.addAll(Arrays.asList(metrics));
+        lock.writeLock().lock();
+        try {
+            prefetched = mode.execute(() -> ordersByItemWeight().collect(OrderAggregates.collector(requested)));
+            return prefetched;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private boolean prefetched(Metric metric) {
+        return prefetched != null && prefetched.covers(metric);
+    }
+    
+    /**
+     * Starts caching the results of the customer and monthly queries
+     * (getRevenueByCustomer, getTopCustomers, getCustomerOrderCounts,
+     * getCustomersWithMultipleOrders, getRevenueByCategory, getOrdersByMonth,
+     * getMonthlyRevenue, getOrdersInDateRange) and returns the cache for its
+     * statistics. Calling it again returns the same cache.
+     * 
+     * Cached results are read-only and shared between callers; addOrder and
+     * updateStatus drop only the views their change can affect, and of
+     * getOrdersInDateRange only the ranges containing the order's date. Each
+     * view keeps the results of its {@value MaterializedViews#DEFAULT_MAX_ENTRIES_PER_VIEW}
+     * most recently used argument lists.
+     */
+    public MaterializedViews enableMaterializedViews() {
+        lock.writeLock().lock();
+        try {
+            if (views == null) {
+                views = new MaterializedViews();
+            }
+            return views;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Stops caching query results and drops the cache.
+     */
+    public void disableMaterializedViews() {
+        lock.writeLock().lock();
+        try {
+            views = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The cached result of the view if views are enabled, otherwise runs the
+     * query. Caller holds the read lock.
+     */
+    private <T> T view(String name, Dependency dependency, Supplier<T> query, Object... arguments) {
+        MaterializedViews current = views;
+        return current == null ? query.get() : current.get(name, dependency, List.of(arguments), query);
+    }
+    
+    /**
+     * Like {@link #view(String, Dependency, Supplier, Object...)} for a result
+     * covering only the orders the scope accepts. Caller holds the read lock.
+     */
+    private <T> T view(String name, Dependency dependency, Predicate<CustomerOrder> scope, Supplier<T> query,
+                       Object... arguments) {
+        MaterializedViews current = views;
+        return current == null ? query.get() : current.get(name, dependency, scope, List.of(arguments), query);
+    }
+    
+    /**
+     * The date index, built on first use.
+     */
+    private OrderDateIndex dateIndex() {
+        OrderDateIndex index = dateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = dateIndex;
+                if (index == null) {
+                    StageEvent stage = StageEvent.begin("buildDateIndex", customerOrders.size());
+                    index = OrderDateIndex.of(customerOrders, mode.isParallel());
+                    stage.finish(customerOrders.size());
+                    dateIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Totals per dictionary code; the body adds the contributions of the order
+     * at one position. Runs in parallel in the parallel modes, with the orders
+     * split by item count (see OrderSpliterators).
+     */
+    private CodeTotals totalsBy(Dictionary<String> dictionary, ObjIntConsumer<CodeTotals.Sink> body) {
+        StageEvent stage = StageEvent.begin("totalsBy", customerOrders.size());
+        CodeTotals totals = CodeTotals.collect(dictionary.size(), orderPositions(), body);
+        stage.finish(totals.size());
+        return totals;
+    }
+    
+    /**
+     * Revenue and units per category code (DELIVERED orders only).
+     */
+    private CodeTotals deliveredTotalsByCategory() {
+        return totalsBy(keys.categories(), (sink, o) -> {
+            CustomerOrder order = customerOrders.get(o);
+            if (order.status == OrderStatus.DELIVERED) {
+                List<OrderItem> items = order.items;
+                for (int i = 0; i < items.size(); i++) {
+                    OrderItem item = items.get(i);
+                    sink.add(keys.category(keys.product(o, i)), item.getLineTotal(), item.quantity);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Units sold per product code (all orders).
+     */
+    private CodeTotals unitsByProduct() {
+        return totalsBy(keys.productIds(), (sink, o) -> {
+            List<OrderItem> items = customerOrders.get(o).items;
+            for (int i = 0; i < items.size(); i++) {
+                sink.add(keys.product(o, i), 0, items.get(i).quantity);
+            }
+        });
+    }
+    
+    /**
+     * Decodes the codes that received contributions into a map keyed by string.
+     */
+    private static <V> Map<String, V> decode(Dictionary<String> dictionary, CodeTotals totals, IntFunction<V> value) {
+        StageEvent stage = StageEvent.begin("decode", totals.size());
+        Map<String, V> result = new HashMap<>();
+        for (int code = 0; code < totals.size(); code++) {
+            if (totals.count(code) > 0) {
+                result.put(dictionary.decode(code), value.apply(code));
+            }
+        }
+        stage.finish(result.size());
+        return result;
     }
     
     // =========================================================================
@@ -180,8 +714,13 @@ public class StreamHomework {
      * Expected: ~5765.87
      */
     public double getTotalRevenue() {
-        return customerOrders.stream().filter( s -> s.status == OrderStatus.DELIVERED)
+        return query("getTotalRevenue", () -> {
+            if (prefetched(Metric.TOTAL_REVENUE)) {
+                return prefetched.totalRevenue();
+            }
+            return orders().filter( s -> s.status == OrderStatus.DELIVERED)
                     .mapToDouble(CustomerOrder::getTotal).sum();
+        });
     }
     
     /**
@@ -190,8 +729,13 @@ public class StreamHomework {
      * Example: getOrderCount(DELIVERED) -> 5
      */
     public long getOrderCount(OrderStatus status) {
-        return customerOrders.stream().filter(s -> s.status == status)
-                .count();
+        return query("getOrderCount", status, () -> {
+            if (prefetched(Metric.ORDER_COUNT_BY_STATUS)) {
+                return prefetched.orderCount(status);
+            }
+            return orders().filter(s -> s.status == status)
+                    .count();
+        });
     }
     
     /**
@@ -200,8 +744,7 @@ public class StreamHomework {
      * Returns a Set of all products that appear in any order.
      */
     public Set<Product> getUniqueProducts() {
-        return customerOrders.stream().flatMap(order -> order.items.stream())
-                .map(OrderItem::product).collect(Collectors.toSet());
+        return query("getUniqueProducts", () -> items().map(OrderItem::product).collect(toSet()));
     }
     
     /**
@@ -210,8 +753,13 @@ public class StreamHomework {
      * Expected: ~1153.17
      */
     public double getAverageOrderValue() {
-        return customerOrders.stream().filter(s -> s.status == OrderStatus.DELIVERED)
-                .mapToDouble(CustomerOrder::getTotal).average().getAsDouble();
+        return query("getAverageOrderValue", () -> {
+            if (prefetched(Metric.AVERAGE_ORDER_VALUE)) {
+                return prefetched.averageOrderValue();
+            }
+            return orders().filter(s -> s.status == OrderStatus.DELIVERED)
+                    .mapToDouble(CustomerOrder::getTotal).average().getAsDouble();
+        });
     }
     
     // =========================================================================
@@ -226,24 +774,34 @@ public class StreamHomework {
      * Expected includes: {C001=1509.93, C002=899.97, ...}
      */
     public Map<String, Double> getRevenueByCustomer() {
-        return customerOrders.stream().filter(s -> s.status == OrderStatus.DELIVERED)
-                .collect(Collectors.groupingBy(CustomerOrder::customerId,
-                        Collectors.summingDouble(CustomerOrder::getTotal)));
+        return query("getRevenueByCustomer", this::revenueByCustomer);
+    }
+    
+    private Map<String, Double> revenueByCustomer() {
+        return view("revenueByCustomer", Dependency.DELIVERED, () -> {
+            if (prefetched(Metric.REVENUE_BY_CUSTOMER)) {
+                return prefetched.revenueByCustomer();
+            }
+            CodeTotals totals = totalsBy(keys.customers(), (sink, o) -> {
+                CustomerOrder order = customerOrders.get(o);
+                if (order.status == OrderStatus.DELIVERED) {
+                    sink.add(keys.customer(o), order.getTotal(), 0);
+                }
+            });
+            return decode(keys.customers(), totals, totals::sum);
+        });
     }
     
     /**
      * Task 2.2: Get top N customers by total spending (DELIVERED orders).
      * 
-     * Returns: List of customer IDs sorted by spending (highest first)
+     * Returns: List of customer IDs sorted by spending (highest first, ties by id)
      * 
      * Example: getTopCustomers(3) -> [C004, C001, C006] (or similar based on data)
      */
     public List<String> getTopCustomers(int n) {
-        return getRevenueByCustomer().entrySet().stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .limit(n)
-                .map(Map.Entry::getKey)
-                .toList();
+        return query("getTopCustomers", n, () -> view("topCustomers", Dependency.DELIVERED,
+                () -> revenueByCustomer().entrySet().stream().collect(TopK.keysByValue(n)), n));
     }
     
     /**
@@ -252,8 +810,17 @@ public class StreamHomework {
      * Returns: Map of customerId → number of orders placed
      */
     public Map<String, Long> getCustomerOrderCounts() {
-        return customerOrders.stream().collect(Collectors.groupingBy(
-                CustomerOrder::customerId, Collectors.counting()));
+        return query("getCustomerOrderCounts", this::customerOrderCounts);
+    }
+    
+    private Map<String, Long> customerOrderCounts() {
+        return view("customerOrderCounts", Dependency.ORDERS, () -> {
+            if (prefetched(Metric.CUSTOMER_ORDER_COUNTS)) {
+                return prefetched.customerOrderCounts();
+            }
+            CodeTotals totals = totalsBy(keys.customers(), (sink, o) -> sink.add(keys.customer(o), 0, 0));
+            return decode(keys.customers(), totals, totals::count);
+        });
     }
     
     /**
@@ -262,9 +829,10 @@ public class StreamHomework {
      * Expected: [C001, C002, C003, C006]
      */
     public List<String> getCustomersWithMultipleOrders() {
-        return getCustomerOrderCounts().entrySet().stream()
-                .filter(s ->s.getValue()>1)
-                .map(entry -> entry.getKey()).toList();
+        return query("getCustomersWithMultipleOrders", () -> view("customersWithMultipleOrders", Dependency.ORDERS,
+                () -> customerOrderCounts().entrySet().stream()
+                        .filter(s ->s.getValue()>1)
+                        .map(entry -> entry.getKey()).toList()));
     }
     
     // =========================================================================
@@ -279,28 +847,33 @@ public class StreamHomework {
      * Expected includes: {Electronics=4599.91, Clothing=209.95, ...}
      */
     public Map<String, Double> getRevenueByCategory() {
-
-        return customerOrders.stream()
-                .filter(s -> s.status == OrderStatus.DELIVERED)
-                .flatMap(CustomerOrder -> CustomerOrder.items.stream())
-                .collect(Collectors.groupingBy(item ->item.product.category,
-                        Collectors.summingDouble(item -> item.quantity*item.product.price)));
+        return query("getRevenueByCategory", () -> view("revenueByCategory", Dependency.DELIVERED, () -> {
+            if (prefetched(Metric.REVENUE_BY_CATEGORY)) {
+                return prefetched.revenueByCategory();
+            }
+            CodeTotals totals = deliveredTotalsByCategory();
+            return decode(keys.categories(), totals, totals::sum);
+        }));
     }
     
     /**
      * Task 3.2: Get top N selling products by quantity (all orders, any status).
      * 
-     * Returns: List of Product objects sorted by total quantity sold
+     * Returns: List of Product objects sorted by total quantity sold (ties by product id)
      */
     public List<Product> getTopSellingProducts(int n) {
-        return customerOrders.stream().flatMap(order -> order.items.stream())
-                .collect(Collectors.groupingBy(item -> item.product,
-                        Collectors.summingInt(item -> item.quantity)))
-                .entrySet().stream()
-                .sorted(Map.Entry.<Product, Integer>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .limit(n)
-                .collect(Collectors.toList());
+        return query("getTopSellingProducts", n, () -> {
+            CodeTotals totals = unitsByProduct();
+            Comparator<Integer> byUnits = Comparator.comparingLong((Integer p) -> totals.units(p)).reversed()
+                    .thenComparing(p -> keys.productIds().decode(p));
+            return IntStream.range(0, totals.size())
+                    .filter(p -> totals.count(p) > 0)
+                    .boxed()
+                    .collect(TopK.collector(n, byUnits))
+                    .stream()
+                    .map(keys::decodeProduct)
+                    .toList();
+        });
     }
     /**
      * Task 3.3: Get total quantity sold for each product (all orders).
@@ -308,9 +881,13 @@ public class StreamHomework {
      * Returns: Map of productId → total quantity sold
      */
     public Map<String, Integer> getProductQuantitySold() {
-        return customerOrders.stream().flatMap(order -> order.items.stream())
-                .collect(Collectors.groupingBy(item -> item.product.id,
-                        Collectors.summingInt(item -> item.quantity)));
+        return query("getProductQuantitySold", () -> {
+            if (prefetched(Metric.PRODUCT_QUANTITY_SOLD)) {
+                return prefetched.productQuantitySold();
+            }
+            CodeTotals totals = unitsByProduct();
+            return decode(keys.productIds(), totals, p -> (int) totals.units(p));
+        });
     }
     
     /**
@@ -319,19 +896,24 @@ public class StreamHomework {
      * Returns: Map of category → CategorySummary(totalRevenue, totalQuantity)
      */
     public Map<String, CategorySummary> getCategorySummary() {
-        return customerOrders.stream()
-                .filter(order -> order.status == OrderStatus.DELIVERED)
-                .flatMap(order -> order.items.stream())
-                .collect(Collectors.groupingBy(
-                        item -> item.product.category,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                items -> new CategorySummary(
-                                        items.stream().mapToDouble(i -> i.product.price * i.quantity).sum(),
-                                        items.stream().mapToInt(i -> i.quantity).sum()
-                                )
-                        )
-                ));
+        return query("getCategorySummary", () -> {
+            if (prefetched(Metric.CATEGORY_SUMMARY)) {
+                return prefetched.categorySummary();
+            }
+            CodeTotals totals = deliveredTotalsByCategory();
+            return decode(keys.categories(), totals, c -> new CategorySummary(totals.sum(c), (int) totals.units(c)));
+        });
+    }
+    
+    /**
+     * Category summary extended with item and order counts and the
+     * min/mean/max line total (DELIVERED only), computed in one pass.
+     * 
+     * Returns: Map of category → CategoryStatistics
+     */
+    public Map<String, CategoryStatistics> getCategoryStatistics() {
+        return query("getCategoryStatistics", () -> ordersByItemWeight().collect(
+                CategoryStatistics.byCategory(order -> order.status == OrderStatus.DELIVERED)));
     }
     
     // =========================================================================
@@ -341,12 +923,11 @@ public class StreamHomework {
     /**
      * Task 4.1: Group orders by month.
      * 
-     * Returns: Map of YearMonth → List of Orders
+     * Returns: Map of YearMonth → List of Orders (each list in date order)
      */
     public Map<YearMonth, List<CustomerOrder>> getOrdersByMonth() {
-        return customerOrders.stream().collect(
-                Collectors.groupingBy(order -> YearMonth.from(order.orderDate()))
-        );
+        return query("getOrdersByMonth",
+                () -> view("ordersByMonth", Dependency.ORDER_STATUS, () -> dateIndex().byMonth()));
     }
     
     /**
@@ -355,25 +936,24 @@ public class StreamHomework {
      * Returns: Map of YearMonth → total revenue for that month
      */
     public Map<YearMonth, Double> getMonthlyRevenue() {
-        // TODO: Implement using streams
-        // Hint: Filter delivered, group by month, sum totals
-        return customerOrders.stream().filter(s -> s.status == OrderStatus.DELIVERED)
-                .collect(
-                        Collectors.groupingBy(order -> YearMonth.from(order.orderDate()),
-                        Collectors.summingDouble(order -> order.getTotal()))
-                );
+        return query("getMonthlyRevenue", () -> view("monthlyRevenue", Dependency.DELIVERED, () -> {
+            if (prefetched(Metric.MONTHLY_REVENUE)) {
+                return prefetched.monthlyRevenue();
+            }
+            return dateIndex().monthlyRevenue();
+        }));
     }
     
     /**
      * Task 4.3: Get orders within a date range (inclusive).
      * 
-     * Returns: List of orders where start <= orderDate <= end
+     * Returns: List of orders where start <= orderDate <= end, in date order
      */
     public List<CustomerOrder> getOrdersInDateRange(LocalDate start, LocalDate end) {
-        return customerOrders.stream().filter(
-                order-> !order.orderDate.isBefore(start)
-                    && !order.orderDate.isAfter(end))
-                .toList();
+        return query("getOrdersInDateRange", List.of(start, end),
+                () -> view("ordersInDateRange", Dependency.ORDER_STATUS,
+                        order -> !order.orderDate.isBefore(start) && !order.orderDate.isAfter(end),
+                        () -> dateIndex().range(start, end), start, end));
     }
     
     /**
@@ -382,10 +962,80 @@ public class StreamHomework {
      * Returns: Map of LocalDate → number of orders on that date
      */
     public Map<LocalDate, Long> getDailyOrderCounts() {
-        return customerOrders.stream().collect(
-                Collectors.groupingBy(order -> order.orderDate,
-                        Collectors.counting())
-        );
+        return query("getDailyOrderCounts", () -> {
+            if (prefetched(Metric.DAILY_ORDER_COUNTS)) {
+                return prefetched.dailyOrderCounts();
+            }
+            return orders().collect(
+                    groupingByKey(order -> order.orderDate,
+                            Collectors.counting())
+            );
+        });
+    }
+    
+    /**
+     * Revenue by date (DELIVERED orders only).
+     * 
+     * Returns: Map of LocalDate → total revenue on that date
+     */
+    public Map<LocalDate, Double> getDailyRevenue() {
+        return query("getDailyRevenue", () -> {
+            if (prefetched(Metric.DAILY_REVENUE)) {
+                return prefetched.dailyRevenue();
+            }
+            return orders().filter(s -> s.status == OrderStatus.DELIVERED)
+                    .collect(groupingByKey(CustomerOrder::orderDate,
+                            Collectors.summingDouble(CustomerOrder::getTotal)));
+        });
+    }
+    
+    // =========================================================================
+    // APPROXIMATE DISTINCT COUNTS
+    // =========================================================================
+    
+    /**
+     * Approximate number of distinct products ordered, from a HyperLogLog
+     * sketch instead of the full Set built by getUniqueProducts().
+     */
+    public long getApproximateUniqueProductCount() {
+        int precision = sketchPrecision;
+        return query("getApproximateUniqueProductCount",
+                () -> items().collect(HyperLogLog.counting(precision, item -> item.product().id())));
+    }
+    
+    /**
+     * Approximate number of distinct customers with at least one order (any status).
+     */
+    public long getApproximateCustomerCount() {
+        int precision = sketchPrecision;
+        return query("getApproximateCustomerCount",
+                () -> orders().collect(HyperLogLog.counting(precision, CustomerOrder::customerId)));
+    }
+    
+    /**
+     * Sketch of the distinct customers ordering in each month (any status).
+     * Merge copies of several months for a longer period, e.g.
+     *   byMonth.get(jan).copy().merge(byMonth.get(feb)).estimate()
+     * 
+     * Returns: Map of YearMonth → sketch of that month's customer ids
+     */
+    public Map<YearMonth, HyperLogLog> getCustomerSketchesByMonth() {
+        int precision = sketchPrecision;
+        return query("getCustomerSketchesByMonth", () -> orders().collect(Collectors.groupingBy(
+                order -> YearMonth.from(order.orderDate),
+                HyperLogLog.collector(precision, CustomerOrder::customerId))));
+    }
+    
+    /**
+     * Sketch of the distinct products ordered in each category (any status).
+     * 
+     * Returns: Map of category → sketch of the category's product ids
+     */
+    public Map<String, HyperLogLog> getProductSketchesByCategory() {
+        int precision = sketchPrecision;
+        return query("getProductSketchesByCategory", () -> items().collect(Collectors.groupingBy(
+                item -> item.product().category(),
+                HyperLogLog.collector(precision, item -> item.product().id()))));
     }
     
     // =========================================================================
@@ -0,0 +1,95 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Collectors that keep only the k best elements of a stream.
+ *
+ * A bounded min-heap holds the current top k, so selecting from m elements
+ * costs O(m log k) time and O(k) memory instead of sorting all m. Heaps from
+ * parallel substreams merge by offering one into the other.
+ *
+ * Example: the 10 customers with the highest revenue, ties by id
+ *   revenueByCustomer.entrySet().stream().collect(TopK.keysByValue(10));
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    // Head is the worst of the kept elements
+    private final PriorityQueue<T> heap;
+
+    private TopK(int k, Comparator<? super T> order) {
+        this.k = k;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), order.reversed());
+    }
+
+    /**
+     * Collects the k first elements in the given order, sorted by it.
+     * The order should be total (break ties) for a deterministic result.
+     *
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return Collector.of(
+                () -> new TopK<T>(k, order),
+                TopK::offer,
+                TopK::combine,
+                TopK::toList,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Collects the keys of the k entries with the highest values, ties
+     * broken by ascending key. Works on any grouping result's entrySet().
+     */
+    public static <K extends Comparable<? super K>, V extends Comparable<? super V>>
+            Collector<Map.Entry<K, V>, ?, List<K>> keysByValue(int k) {
+        return keysByValue(k, Function.identity());
+    }
+
+    /**
+     * Like {@link #keysByValue(int)}, with ties broken by an id extracted
+     * from the key (e.g. Product::id).
+     */
+    public static <K, V extends Comparable<? super V>, I extends Comparable<? super I>>
+            Collector<Map.Entry<K, V>, ?, List<K>> keysByValue(int k, Function<? super K, ? extends I> id) {
+        Comparator<Map.Entry<K, V>> order = Map.Entry.<K, V>comparingByValue().reversed()
+                .thenComparing(entry -> id.apply(entry.getKey()));
+        return Collectors.collectingAndThen(collector(k, order),
+                top -> top.stream().map(Map.Entry::getKey).toList());
+    }
+
+    // =========================================================================
+    // HEAP
+    // =========================================================================
+
+    private void offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (k > 0 && order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    private TopK<T> combine(TopK<T> other) {
+        for (T element : other.heap) {
+            offer(element);
+        }
+        return this;
+    }
+
+    private List<T> toList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+}
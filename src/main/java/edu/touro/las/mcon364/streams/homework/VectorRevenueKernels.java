@@ -0,0 +1,67 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import jdk.incubator.vector.*;
+
+/**
+ * {@link RevenueKernels} on jdk.incubator.vector.
+ *
+ * Each step loads one register of prices (the platform's preferred double
+ * shape), the same number of quantities (a half-width int vector, widened
+ * to doubles) and the include flags as a mask, and multiplies and adds
+ * them lane-wise; the leftover items at the end run scalar.
+ *
+ * Only loaded through {@link RevenueKernels#vector()}, which checks that the
+ * incubator module is present first.
+ */
+final class VectorRevenueKernels extends RevenueKernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Same lane count as DOUBLES, half the bits
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    VectorRevenueKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public double sum(double[] price, int[] quantity, boolean[] include, int from, int to) {
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = from;
+        for (int upper = from + DOUBLES.loopBound(to - from); i < upper; i += DOUBLES.length()) {
+            VectorMask<Double> mask = VectorMask.fromArray(DOUBLES, include, i);
+            acc = acc.add(lineTotals(price, quantity, i), mask);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            if (include[i]) {
+                sum += price[i] * quantity[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public void lineTotals(double[] price, int[] quantity, boolean[] include, int from, int to, double[] out) {
+        DoubleVector zero = DoubleVector.zero(DOUBLES);
+        int i = from;
+        for (int upper = from + DOUBLES.loopBound(to - from); i < upper; i += DOUBLES.length()) {
+            VectorMask<Double> mask = VectorMask.fromArray(DOUBLES, include, i);
+            zero.blend(lineTotals(price, quantity, i), mask).intoArray(out, i - from);
+        }
+        for (; i < to; i++) {
+            out[i - from] = include[i] ? price[i] * quantity[i] : 0;
+        }
+    }
+
+    private static DoubleVector lineTotals(double[] price, int[] quantity, int i) {
+        DoubleVector prices = DoubleVector.fromArray(DOUBLES, price, i);
+        DoubleVector quantities = (DoubleVector) IntVector.fromArray(INTS, quantity, i)
+                .convertShape(VectorOperators.I2D, DOUBLES, 0);
+        return prices.mul(quantities);
+    }
+}
@@ -0,0 +1,169 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent latency histogram with HDR-style log-linear buckets.
+ *
+ * Values below 64 ns get a bucket each; above that every power of two is
+ * split into 32 buckets, so a reported value is at most ~3% above the
+ * recorded one. Values from 0 to {@link #MAX_NANOS} are told apart (about
+ * 1200 buckets, 10 KB); longer ones count as MAX_NANOS.
+ *
+ * Recording is one atomic increment and never allocates. Snapshots copy the
+ * counts, so percentiles of a snapshot do not move while recording goes on.
+ */
+public final class LatencyHistogram {
+
+    /** Longest latency told apart; longer ones are recorded as this. */
+    public static final long MAX_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = index(MAX_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one latency; negative values count as 0.
+     */
+    public void record(long nanos) {
+        counts.getAndIncrement(index(Math.max(0, Math.min(nanos, MAX_NANOS))));
+    }
+
+    /**
+     * Copy of the counts recorded so far.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    /**
+     * Bucket of a value: linear below 2 * SUB_BUCKETS, then SUB_BUCKETS
+     * buckets per power of two.
+     */
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Lowest value that falls in the bucket.
+     */
+    static long lowestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (index - shift * SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Highest value that falls in the bucket.
+     */
+    static long highestValue(int index) {
+        return lowestValue(index + 1) - 1;
+    }
+
+    /**
+     * Immutable copy of a histogram's counts. Reported values are the
+     * highest value of the bucket they fall in.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+        }
+
+        /**
+         * Number of values recorded.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * The value below which the given percent (0-100) of the recorded
+         * values fall; 0 if nothing was recorded.
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValue(i);
+                }
+            }
+            return highestValue(counts.length - 1);
+        }
+
+        /**
+         * Median latency in nanoseconds.
+         */
+        public long p50() {
+            return valueAtPercentile(50);
+        }
+
+        /**
+         * 99th percentile latency in nanoseconds.
+         */
+        public long p99() {
+            return valueAtPercentile(99);
+        }
+
+        /**
+         * 99.9th percentile latency in nanoseconds.
+         */
+        public long p999() {
+            return valueAtPercentile(99.9);
+        }
+
+        /**
+         * Highest latency recorded, in nanoseconds; 0 if nothing was recorded.
+         */
+        public long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Mean latency in nanoseconds, from the bucket midpoints; 0.0 if nothing was recorded.
+         */
+        public double mean() {
+            if (count == 0) {
+                return 0.0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    sum += counts[i] * ((lowestValue(i) + highestValue(i)) / 2.0);
+                }
+            }
+            return sum / count;
+        }
+    }
+}
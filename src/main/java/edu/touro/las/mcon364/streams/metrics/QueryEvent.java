@@ -0,0 +1,121 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import jdk.jfr.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * JFR event for one analytics query call: class and method, arguments,
+ * rows in and out, bytes allocated and whether it failed; the event's
+ * duration is the call's latency.
+ *
+ * Enabled in the default and profile settings, so it shows up in any
+ * recording, e.g. java -XX:StartFlightRecording=filename=queries.jfr ...
+ * and then: jfr print --events edu.touro.las.mcon364.streams.Query queries.jfr
+ *
+ * When JFR is not recording, begin and finish only check a flag. Allocated
+ * bytes are those of the calling thread; work that a parallel query hands
+ * to other threads is not counted.
+ *
+ * Usage:
+ *   QueryEvent event = QueryEvent.begin("StreamHomework", "getTopCustomers");
+ *   ... run the query ...
+ *   event.finish(n, orders.size(), result, false);
+ */
+@Name(QueryEvent.NAME)
+@Label("Analytics Query")
+@Category({"Streams", "Analytics"})
+@Description("One call of a StreamHomework or StreamExercise query")
+@StackTrace(false)
+public final class QueryEvent extends Event {
+
+    /** Event type name, for JFR settings and RecordingStream.onEvent. */
+    public static final String NAME = "edu.touro.las.mcon364.streams.Query";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    @Label("Class")
+    String source;
+
+    @Label("Method")
+    String method;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Rows In")
+    long rowsIn;
+
+    @Label("Rows Out")
+    long rowsOut;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Failed")
+    boolean failed;
+
+    private QueryEvent() {
+    }
+
+    /**
+     * Starts timing a call of source.method.
+     */
+    public static QueryEvent begin(String source, String method) {
+        QueryEvent event = new QueryEvent();
+        if (event.isEnabled()) {
+            event.source = source;
+            event.method = method;
+            event.allocatedBytes = allocated();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends the call and commits the event if it passes the recording's
+     * threshold. Rows out are the size of a collection or map result and
+     * 1 for any other non-null result.
+     *
+     * @param arguments the call's arguments (null if none), recorded as String.valueOf
+     */
+    public void finish(Object arguments, long rowsIn, Object result, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.arguments = arguments == null ? "" : String.valueOf(arguments);
+            this.rowsIn = rowsIn;
+            this.rowsOut = rows(result);
+            this.allocatedBytes = allocated() - allocatedBytes;
+            this.failed = failed;
+            commit();
+        }
+    }
+
+    /**
+     * Rows in a result: its size for collections and maps, 1 for any other value, 0 for null.
+     */
+    static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return result == null ? 0 : 1;
+    }
+
+    private static long allocated() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+/**
+ * Counters of one query method at one point in time.
+ *
+ * @param calls   calls recorded, failed ones included
+ * @param errors  calls that threw
+ * @param rows    rows the calls ran over, summed
+ * @param latency latency of every call, in nanoseconds
+ */
+public record QuerySnapshot(String name, long calls, long errors, long rows, LatencyHistogram.Snapshot latency) {
+
+    /**
+     * Example: getTotalRevenue: 120 calls, 0 errors, 1200 rows, p50 1.2 us, p99 8.1 us, p99.9 20.5 us, max 31.7 us
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %d errors, %d rows, p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                name, calls, errors, rows, latency.p50() / 1e3, latency.p99() / 1e3,
+                latency.p999() / 1e3, latency.max() / 1e3);
+    }
+}
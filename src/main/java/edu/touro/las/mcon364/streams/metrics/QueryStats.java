@@ -0,0 +1,49 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recorder for one query method: calls (with their latency), errors and
+ * rows scanned. Safe to record from many threads; never allocates.
+ */
+public final class QueryStats {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    QueryStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Name of the query.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param nanos  how long it took
+     * @param rows   rows (orders, students, ...) it ran over
+     * @param failed whether it threw
+     */
+    public void record(long nanos, long rows, boolean failed) {
+        latency.record(nanos);
+        this.rows.add(rows);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * The counters so far.
+     */
+    public QuerySnapshot snapshot() {
+        LatencyHistogram.Snapshot latencies = latency.snapshot();
+        return new QuerySnapshot(name, latencies.count(), errors.sum(), rows.sum(), latencies);
+    }
+}
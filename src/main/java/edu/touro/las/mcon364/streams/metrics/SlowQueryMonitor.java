@@ -0,0 +1,101 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-process listener that flags analytics queries slower than a threshold,
+ * using a JFR {@link RecordingStream} on {@link QueryEvent}s.
+ *
+ * JFR applies the threshold itself, so faster queries are never committed
+ * and cost only the enabled check, unless another recording (e.g.
+ * -XX:StartFlightRecording or a second monitor) enables the event with a
+ * lower threshold; the listener checks the duration again for that case.
+ * Events reach the listener on the stream's own thread, typically within a
+ * second of the call.
+ *
+ * Example:
+ *   try (SlowQueryMonitor monitor = SlowQueryMonitor.start(Duration.ofMillis(50),
+ *           slow -> System.err.println("slow query: " + slow))) {
+ *       ... serve queries ...
+ *   }
+ */
+public final class SlowQueryMonitor implements AutoCloseable {
+
+    /**
+     * One query call that took at least the threshold.
+     */
+    public record SlowQuery(Instant start, Duration duration, String source, String method, String arguments,
+                            long rowsIn, long rowsOut, long allocatedBytes, boolean failed) {
+
+        @Override
+        public String toString() {
+            return String.format("%s.%s(%s) took %.3f ms, %d rows in, %d rows out, %d bytes allocated%s",
+                    source, method, arguments, duration.toNanos() / 1e6, rowsIn, rowsOut, allocatedBytes,
+                    failed ? ", failed" : "");
+        }
+    }
+
+    private final RecordingStream stream;
+    private final Duration threshold;
+    private final LongAdder flagged = new LongAdder();
+
+    private SlowQueryMonitor(RecordingStream stream, Duration threshold) {
+        this.stream = stream;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Starts streaming query events that take at least the threshold to the listener.
+     */
+    public static SlowQueryMonitor start(Duration threshold, Consumer<? super SlowQuery> listener) {
+        Objects.requireNonNull(threshold, "threshold");
+        Objects.requireNonNull(listener, "listener");
+        RecordingStream stream = new RecordingStream();
+        SlowQueryMonitor monitor = new SlowQueryMonitor(stream, threshold);
+        stream.enable(QueryEvent.NAME).withThreshold(threshold).withoutStackTrace();
+        // Another recording with a lower threshold makes JFR commit faster calls too
+        stream.onEvent(QueryEvent.NAME, event -> {
+            if (event.getDuration().compareTo(threshold) >= 0) {
+                monitor.flagged.increment();
+                listener.accept(toSlowQuery(event));
+            }
+        });
+        stream.startAsync();
+        return monitor;
+    }
+
+    /**
+     * The threshold queries are compared with.
+     */
+    public Duration threshold() {
+        return threshold;
+    }
+
+    /**
+     * Number of slow queries reported so far.
+     */
+    public long flagged() {
+        return flagged.sum();
+    }
+
+    /**
+     * Stops the stream; events not yet delivered are dropped.
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private static SlowQuery toSlowQuery(RecordedEvent event) {
+        return new SlowQuery(event.getStartTime(), event.getDuration(), event.getString("source"),
+                event.getString("method"), event.getString("arguments"), event.getLong("rowsIn"),
+                event.getLong("rowsOut"), event.getLong("allocatedBytes"), event.getBoolean("failed"));
+    }
+}
@@ -0,0 +1,61 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for one stage inside a query (scanning the orders into
+ * per-code totals, decoding codes into a result map, building an index).
+ * Stage events nest inside the {@link QueryEvent} of the same thread.
+ *
+ * Disabled by default since a query runs several stages; enable it in the
+ * recording settings, e.g.
+ *   RecordingStream.enable(StageEvent.NAME)
+ * or with a .jfc file setting edu.touro.las.mcon364.streams.Stage#enabled=true.
+ */
+@Name(StageEvent.NAME)
+@Label("Query Stage")
+@Category({"Streams", "Analytics"})
+@Description("One stage of an analytics query pipeline")
+@Enabled(false)
+@StackTrace(false)
+public final class StageEvent extends Event {
+
+    /** Event type name, for JFR settings and RecordingStream.onEvent. */
+    public static final String NAME = "edu.touro.las.mcon364.streams.Stage";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Rows In")
+    long rowsIn;
+
+    @Label("Rows Out")
+    long rowsOut;
+
+    private StageEvent() {
+    }
+
+    /**
+     * Starts timing a stage reading rowsIn rows.
+     */
+    public static StageEvent begin(String stage, long rowsIn) {
+        StageEvent event = new StageEvent();
+        if (event.isEnabled()) {
+            event.stage = stage;
+            event.rowsIn = rowsIn;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends the stage and commits the event if it passes the recording's threshold.
+     */
+    public void finish(long rowsOut) {
+        end();
+        if (shouldCommit()) {
+            this.rowsOut = rowsOut;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for AverageIndex. Threshold slices are checked against a scan.
+ *
+ * Run with: mvn test -Dtest=AverageIndexTest
+ */
+class AverageIndexTest {
+
+    private Gradebook gradebook;
+    private AverageIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<Integer>> grades = new LinkedHashMap<>();
+        Random random = new Random(13);
+        for (int s = 0; s < 2000; s++) {
+            grades.put("S" + s, random.ints(1 + random.nextInt(6), 0, 101).boxed().toList());
+        }
+        gradebook = Gradebook.of(grades);
+        index = gradebook.averageIndex(false);
+    }
+
+    @Test
+    @DisplayName("Threshold slices match a scan")
+    void testThresholds() {
+        for (double threshold : new double[] {-1, 0, 33.5, 50, 60, 80, 99.9, 100, 101}) {
+            assertEquals(scan(s -> average(s) >= threshold), sorted(index.atLeast(threshold)), "atLeast " + threshold);
+            assertEquals(scan(s -> average(s) < threshold), sorted(index.below(threshold)), "below " + threshold);
+            assertEquals(scan(s -> average(s) >= threshold).size(), index.countAtLeast(threshold));
+        }
+        assertEquals(scan(s -> average(s) >= 70 && average(s) < 80), sorted(index.range(70, 80)));
+        assertEquals(0, index.range(80, 70).count());
+    }
+
+    @Test
+    @DisplayName("Slices are ordered by average")
+    void testOrder() {
+        double[] passing = index.atLeast(50).mapToDouble(this::average).toArray();
+        for (int i = 1; i < passing.length; i++) {
+            assertTrue(passing[i - 1] >= passing[i]);
+        }
+        double[] failing = index.below(50).mapToDouble(this::average).toArray();
+        for (int i = 1; i < failing.length; i++) {
+            assertTrue(failing[i - 1] <= failing[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("The index is rebuilt after grades change")
+    void testInvalidation() {
+        assertSame(index, gradebook.averageIndex(false));
+        gradebook.setGrades("S0", List.of(100));
+        AverageIndex rebuilt = gradebook.averageIndex(true);
+        assertNotSame(index, rebuilt);
+        assertTrue(rebuilt.atLeast(100).anyMatch(s -> s == 0));
+        gradebook.addGrade("New", 0);
+        assertEquals(2001, gradebook.averageIndex(false).size());
+    }
+
+    @Test
+    @DisplayName("groupByPerformance buckets match getLetterGrade boundaries")
+    void testLetterBuckets() {
+        StreamExercise exercise = new StreamExercise();
+        Map<String, List<String>> groups = exercise.groupByPerformance();
+        assertEquals(Set.of("Alice", "Carol", "Grace"), new HashSet<>(groups.get("A")));
+        assertEquals(List.of("Eva"), groups.get("B"));
+        assertEquals(Set.of("Bob", "Henry"), new HashSet<>(groups.get("C")));
+        assertEquals(List.of("David"), groups.get("D"));
+        assertEquals(List.of("Frank"), groups.get("F"));
+        exercise.setGrades("Zed", List.of(90));
+        assertTrue(exercise.groupByPerformance().get("A").contains("Zed"));
+    }
+
+    private double average(int student) {
+        return gradebook.stats(student).average();
+    }
+
+    private List<Integer> scan(IntPredicate filter) {
+        return IntStream.range(0, gradebook.size()).filter(filter).boxed().collect(Collectors.toList());
+    }
+
+    private static List<Integer> sorted(IntStream students) {
+        return students.sorted().boxed().collect(Collectors.toList());
+    }
+}
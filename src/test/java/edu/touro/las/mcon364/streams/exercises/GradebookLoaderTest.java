@@ -0,0 +1,120 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit tests for GradebookLoader.
+ *
+ * Run with: mvn test -Dtest=GradebookLoaderTest
+ */
+class GradebookLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    private Path write(String content) throws IOException {
+        Path file = dir.resolve("grades.csv");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    @DisplayName("Rows load into students in order of first appearance")
+    void testLoad() throws IOException {
+        Path file = write("student,grade\nAlice,95\nBob,78\r\nAlice,87\n\nZoë,100\nBob,0");
+
+        GradebookLoader.Result result = GradebookLoader.load(file, false);
+        Gradebook gradebook = result.gradebook();
+
+        assertEquals(5, result.rows());
+        assertEquals(Files.size(file), result.bytes());
+        assertEquals(3, gradebook.size());
+        assertEquals(List.of("Alice", "Bob", "Zoë"),
+                List.of(gradebook.name(0), gradebook.name(1), gradebook.name(2)));
+        assertEquals(List.of(95, 87), gradebook.gradeList(0));
+        assertEquals(List.of(78, 0), gradebook.gradeList(1));
+        assertEquals(List.of(100), gradebook.gradeList(2));
+        assertTrue(result.rowsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Small parallel chunks give the same gradebook as one chunk")
+    void testChunksMatchSingleChunk() throws IOException {
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder();
+        Map<String, List<Integer>> expected = new LinkedHashMap<>();
+        for (int row = 0; row < 5_000; row++) {
+            String name = "student" + random.nextInt(300);
+            int grade = random.nextInt(Gradebook.MAX_GRADE + 1);
+            csv.append(name).append(',').append(grade).append('\n');
+            expected.computeIfAbsent(name, k -> new ArrayList<>()).add(grade);
+        }
+        Path file = write(csv.toString());
+
+        GradebookLoader.Result result = GradebookLoader.load(file, true, 1024);
+        Gradebook gradebook = result.gradebook();
+
+        assertEquals(5_000, result.rows());
+        assertEquals(expected.size(), gradebook.size());
+        int s = 0;
+        for (Map.Entry<String, List<Integer>> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), gradebook.name(s));
+            assertEquals(entry.getValue(), gradebook.gradeList(s));
+            s++;
+        }
+    }
+
+    @Test
+    @DisplayName("Loaded gradebook answers StreamExercise queries")
+    void testStreamExercise() throws IOException {
+        Path file = write("Alice,90\nAlice,100\nBob,50\n");
+
+        StreamExercise exercise = new StreamExercise(GradebookLoader.load(file, true).gradebook());
+
+        assertEquals(95.0, exercise.calculateAverage("Alice"), 1e-9);
+        assertEquals("Alice", exercise.findTopPerformer());
+    }
+
+    @Test
+    @DisplayName("A header line without a comma is skipped")
+    void testHeaderWithoutComma() throws IOException {
+        for (String header : List.of("student\n", "student\r\n")) {
+            GradebookLoader.Result result = GradebookLoader.load(write(header + "Alice,90\nBob,80\n"), false);
+
+            assertEquals(2, result.rows());
+            assertEquals(List.of(90), result.gradebook().gradeList(0));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> GradebookLoader.load(write("student\nAlice,90\nBob\n"), false));
+    }
+
+    @Test
+    @DisplayName("Malformed rows and out-of-range grades are rejected")
+    void testMalformed() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+                () -> GradebookLoader.load(write("Alice,90\nBob,abc\n"), false));
+        assertThrows(IllegalArgumentException.class,
+                () -> GradebookLoader.load(write("Alice,101\n"), false));
+        assertThrows(IllegalArgumentException.class,
+                () -> GradebookLoader.load(write("Alice,90\nBob\n"), false));
+        assertThrows(UncheckedIOException.class,
+                () -> GradebookLoader.load(dir.resolve("missing.csv"), false));
+    }
+
+    @Test
+    @DisplayName("Empty file gives an empty gradebook")
+    void testEmpty() throws IOException {
+        GradebookLoader.Result result = GradebookLoader.load(write(""), true);
+
+        assertEquals(0, result.rows());
+        assertEquals(0, result.gradebook().size());
+    }
+}
@@ -0,0 +1,66 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for Gradebook.
+ *
+ * Run with: mvn test -Dtest=GradebookTest
+ */
+class GradebookTest {
+
+    private Map<String, List<Integer>> grades;
+    private Gradebook gradebook;
+
+    @BeforeEach
+    void setUp() {
+        grades = new LinkedHashMap<>();
+        grades.put("Zoe", List.of(100, 0, 50));
+        grades.put("Adam", List.of());
+        grades.put("Mia", List.of(70, 70, 99, 1));
+        gradebook = Gradebook.of(grades);
+    }
+
+    @Test
+    @DisplayName("Students keep the map's order and their grades")
+    void testLayout() {
+        assertEquals(3, gradebook.size());
+        assertEquals(7, gradebook.gradeCount());
+        assertEquals("Adam", gradebook.name(1));
+        assertEquals(2, gradebook.indexOf("Mia"));
+        assertEquals(-1, gradebook.indexOf("Nobody"));
+        assertEquals(List.of(70, 70, 99, 1), gradebook.gradeList(2));
+        assertEquals(50.0, gradebook.grades(0).average().orElseThrow(), 1e-9);
+        assertEquals(0, gradebook.gradeCount(1));
+    }
+
+    @Test
+    @DisplayName("Counting sort matches a comparison sort")
+    void testSortedGrades() {
+        Random random = new Random(5);
+        Map<String, List<Integer>> large = new LinkedHashMap<>();
+        for (int s = 0; s < 1000; s++) {
+            large.put("S" + s, random.ints(random.nextInt(10), 0, Gradebook.MAX_GRADE + 1).boxed().toList());
+        }
+        List<Integer> expected = large.values().stream().flatMap(List::stream).sorted().toList();
+        assertEquals(expected, Gradebook.of(large).sortedGrades());
+        assertEquals(List.of(0, 1, 50, 70, 70, 99, 100), gradebook.sortedGrades());
+    }
+
+    @Test
+    @DisplayName("Grade views are read-only")
+    void testViewsReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> gradebook.gradeList(0).set(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> gradebook.sortedGrades().add(1));
+    }
+
+    @Test
+    @DisplayName("Grades outside 0-100 are rejected")
+    void testOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> Gradebook.of(Map.of("Bad", List.of(101))));
+        assertThrows(IllegalArgumentException.class, () -> Gradebook.of(Map.of("Bad", List.of(-1))));
+    }
+}
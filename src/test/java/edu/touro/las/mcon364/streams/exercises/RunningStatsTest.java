@@ -0,0 +1,92 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for RunningStats, StudentStats variance and
+ * findMostConsistentStudent.
+ *
+ * Run with: mvn test -Dtest=RunningStatsTest
+ */
+class RunningStatsTest {
+
+    @Test
+    @DisplayName("Welford matches the two-pass formulas")
+    void testMatchesTwoPass() {
+        double[] values = new Random(17).doubles(10_000, -50, 150).toArray();
+        double mean = Arrays.stream(values).average().orElseThrow();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / values.length;
+
+        RunningStats stats = new RunningStats();
+        Arrays.stream(values).forEach(stats);
+        assertEquals(values.length, stats.getCount());
+        assertEquals(mean, stats.getMean(), 1e-9);
+        assertEquals(variance, stats.getVariance(), 1e-6);
+        assertEquals(variance * values.length / (values.length - 1), stats.getSampleVariance(), 1e-6);
+        assertEquals(Arrays.stream(values).min().orElseThrow(), stats.getMin());
+    }
+
+    @Test
+    @DisplayName("Stays accurate for large values close together")
+    void testNumericalStability() {
+        RunningStats stats = new RunningStats();
+        for (double offset : new double[] {4, 7, 13, 16}) {
+            stats.accept(1e9 + offset);
+        }
+        // The naive E[x^2] - E[x]^2 loses every digit here
+        assertEquals(22.5, stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Parallel combine matches sequential accumulation")
+    void testParallelCombine() {
+        int[] grades = new Random(19).ints(200_000, 0, 101).toArray();
+        RunningStats sequential = Arrays.stream(grades)
+                .collect(RunningStats::new, RunningStats::accept, RunningStats::combine);
+        RunningStats parallel = Arrays.stream(grades).parallel()
+                .collect(RunningStats::new, RunningStats::accept, RunningStats::combine);
+        RunningStats boxed = IntStream.of(grades).boxed().parallel()
+                .collect(RunningStats.summarizing(Integer::doubleValue));
+        for (RunningStats stats : List.of(parallel, boxed)) {
+            assertEquals(sequential.getCount(), stats.getCount());
+            assertEquals(sequential.getMean(), stats.getMean(), 1e-9);
+            assertEquals(sequential.getVariance(), stats.getVariance(), 1e-9);
+            assertEquals(sequential.getMax(), stats.getMax());
+        }
+        assertEquals(0.0, new RunningStats().combine(new RunningStats()).getVariance());
+    }
+
+    @Test
+    @DisplayName("Student variance is exact and updates incrementally")
+    void testStudentVariance() {
+        StudentStats eva = StudentStats.of(new int[] {88, 85, 90, 87, 89});
+        assertEquals(2.96, eva.variance(), 1e-12);
+        StudentStats incremental = StudentStats.of(new int[0]);
+        for (int grade : new int[] {88, 85, 90, 87, 89}) {
+            incremental = incremental.plus(grade);
+        }
+        assertEquals(eva, incremental);
+    }
+
+    @Test
+    @DisplayName("Most consistent student and class statistics")
+    void testConsistency() {
+        StreamExercise exercise = new StreamExercise();
+        assertEquals("Eva", exercise.findMostConsistentStudent());
+        assertEquals(Math.sqrt(2.96), exercise.calculateStandardDeviation("Eva"), 1e-12);
+        assertEquals(0.0, exercise.calculateStandardDeviation("Unknown"));
+        RunningStats classStats = exercise.getClassStatistics();
+        assertEquals(40, classStats.getCount());
+        assertEquals(81.275, classStats.getMean(), 1e-9);
+
+        exercise.setGrades("Zed", List.of(75, 75, 75));
+        exercise.setParallel(true);
+        assertEquals("Zed", exercise.findMostConsistentStudent());
+        exercise.addGrade("Zed", 100);
+        assertEquals("Eva", exercise.findMostConsistentStudent());
+    }
+}
@@ -2,6 +2,7 @@ package edu.touro.las.mcon364.streams.exercises;
 
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.metrics.AllocationAssertions.*;
 
 import java.util.*;
 
@@ -183,4 +184,25 @@ class StreamExerciseTest {
             assertEquals(81.275, avg, 0.01);
         }
     }
+    
+    // =========================================================================
+    // ALLOCATION
+    // =========================================================================
+    
+    @Test
+    @DisplayName("getClassStatistics allocates nothing per student")
+    void testClassStatisticsAllocation() {
+        assumeAllocationCounters();
+        StreamExercise small = new StreamExercise(gradebook(1_000));
+        StreamExercise large = new StreamExercise(gradebook(101_000));
+        assertAllocationPerElementBelow(1.0, "student", 100_000, small::getClassStatistics, large::getClassStatistics);
+    }
+    
+    private static Map<String, List<Integer>> gradebook(int students) {
+        Map<String, List<Integer>> grades = new LinkedHashMap<>();
+        for (int s = 0; s < students; s++) {
+            grades.put("Student" + s, List.of(s % 101, (s * 7) % 101, 50));
+        }
+        return grades;
+    }
 }
@@ -0,0 +1,99 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for StudentStats and the per-student statistics cache.
+ *
+ * Run with: mvn test -Dtest=StudentStatsTest
+ */
+class StudentStatsTest {
+
+    private StreamExercise exercise;
+
+    @BeforeEach
+    void setUp() {
+        exercise = new StreamExercise();
+    }
+
+    @Test
+    @DisplayName("Statistics of a grade array")
+    void testOf() {
+        StudentStats stats = StudentStats.of(new int[] {95, 87, 92, 88, 91});
+        assertEquals(new StudentStats(5, 453, 41083, 87, 95), stats);
+        assertEquals(90.6, stats.average(), 1e-9);
+        assertEquals(0.0, StudentStats.of(new int[0]).average());
+    }
+
+    @Test
+    @DisplayName("Statistics are cached until the grades change")
+    void testCache() {
+        Gradebook gradebook = Gradebook.of(Map.of("Alice", List.of(80, 90)));
+        StudentStats first = gradebook.stats(0);
+        assertSame(first, gradebook.stats(0));
+        gradebook.addGrade("Alice", 100);
+        StudentStats second = gradebook.stats(0);
+        assertNotSame(first, second);
+        assertEquals(new StudentStats(3, 270, 24500, 80, 100), second);
+        gradebook.setGrades("Alice", List.of(50));
+        assertEquals(50.0, gradebook.stats(0).average());
+        assertEquals(1, gradebook.gradeCount());
+    }
+
+    @Test
+    @DisplayName("Queries see grade changes")
+    void testQueriesAfterUpdate() {
+        assertEquals("Grace", exercise.findTopPerformer());
+        assertEquals(List.of("Frank"), exercise.getFailingStudents(60));
+
+        exercise.setGrades("Frank", List.of(100, 100, 100, 100, 100));
+        assertEquals("Frank", exercise.findTopPerformer());
+        assertTrue(exercise.getFailingStudents(60).isEmpty());
+        assertTrue(exercise.groupByPerformance().get("A").contains("Frank"));
+        assertEquals(100.0, exercise.getStudentAverages().get("Frank"));
+        assertEquals(65, exercise.findLowestGrade());
+
+        exercise.addGrade("Zed", 10);
+        assertEquals(List.of("Zed"), exercise.getFailingStudents(60));
+        assertEquals(10, exercise.findLowestGrade());
+        assertEquals(41, exercise.getTotalGradeCount());
+        assertEquals(9, exercise.countStudents());
+    }
+
+    @Test
+    @DisplayName("Threshold queries keep gradebook order")
+    void testThresholdOrder() {
+        assertEquals(List.of("Alice", "Carol", "Eva", "Grace"), exercise.getPassingStudents(80));
+        assertEquals(List.of("David", "Frank"), exercise.getFailingStudents(70));
+
+        exercise.setGrades("Alice", List.of(50));
+        assertEquals(List.of("Alice", "David", "Frank"), exercise.getFailingStudents(70));
+    }
+
+    @Test
+    @DisplayName("Letter groups keep gradebook order")
+    void testGroupByPerformanceOrder() {
+        Map<String, List<String>> groups = exercise.groupByPerformance();
+        assertEquals(List.of("Alice", "Carol", "Grace"), groups.get("A"));
+        assertEquals(List.of("Bob", "Henry"), groups.get("C"));
+    }
+
+    @Test
+    @DisplayName("Parallel queries use the same cached statistics")
+    void testParallel() {
+        Map<String, List<Integer>> grades = new LinkedHashMap<>();
+        Random random = new Random(9);
+        for (int s = 0; s < 5000; s++) {
+            grades.put("S" + s, random.ints(10, 0, 101).boxed().toList());
+        }
+        StreamExercise sequential = new StreamExercise(grades);
+        StreamExercise parallel = new StreamExercise(grades);
+        parallel.setParallel(true);
+        assertEquals(sequential.getStudentAverages(), parallel.getStudentAverages());
+        assertEquals(sequential.getPassingStudents(50), parallel.getPassingStudents(50));
+        assertEquals(sequential.findTopPerformer(), parallel.findTopPerformer());
+    }
+}
@@ -0,0 +1,81 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static edu.touro.las.mcon364.streams.metrics.AllocationAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Guards the item-level analytics against per-order allocation coming back
+ * (e.g. a flatMap that builds a Stream per order).
+ *
+ * Each query runs sequentially on a small and a large order list with the
+ * same catalog, so the results have the same size; the difference in bytes
+ * allocated by the calling thread, divided by the extra orders, must stay
+ * below one byte per order.
+ *
+ * Run with: mvn test -Dtest=AllocationRegressionTest
+ */
+class AllocationRegressionTest {
+
+    private static final int SMALL = 10_000;
+    private static final int LARGE = 110_000;
+    private static final double MAX_BYTES_PER_ORDER = 1.0;
+
+    private static StreamHomework small;
+    private static StreamHomework large;
+
+    @BeforeAll
+    static void setUp() {
+        assumeAllocationCounters();
+        List<Product> products = new ArrayList<>();
+        for (int p = 0; p < 100; p++) {
+            products.add(new Product("P" + p, "Product " + p, "Category " + p % 5, 1 + p));
+        }
+        small = new StreamHomework(products, orders(products, SMALL));
+        large = new StreamHomework(products, orders(products, LARGE));
+    }
+
+    private static List<CustomerOrder> orders(List<Product> products, int count) {
+        OrderStatus[] statuses = OrderStatus.values();
+        List<CustomerOrder> orders = new ArrayList<>(count);
+        for (int o = 0; o < count; o++) {
+            orders.add(new CustomerOrder("O" + o, "C" + o % 50,
+                    List.of(new OrderItem(products.get(o % 100), 1), new OrderItem(products.get(o * 7 % 100), 2)),
+                    LocalDate.of(2024, 1, 1).plusDays(o % 365), statuses[o % statuses.length]));
+        }
+        return orders;
+    }
+
+    @Test
+    @DisplayName("getRevenueByCategory allocates nothing per order")
+    void testRevenueByCategory() {
+        assertNoPerOrderAllocation(small::getRevenueByCategory, large::getRevenueByCategory);
+    }
+
+    @Test
+    @DisplayName("getCategorySummary allocates nothing per order")
+    void testCategorySummary() {
+        assertNoPerOrderAllocation(small::getCategorySummary, large::getCategorySummary);
+    }
+
+    @Test
+    @DisplayName("getProductQuantitySold allocates nothing per order")
+    void testProductQuantitySold() {
+        assertNoPerOrderAllocation(small::getProductQuantitySold, large::getProductQuantitySold);
+    }
+
+    @Test
+    @DisplayName("getUniqueProducts allocates nothing per order")
+    void testUniqueProducts() {
+        assertNoPerOrderAllocation(small::getUniqueProducts, large::getUniqueProducts);
+    }
+
+    private static void assertNoPerOrderAllocation(Supplier<?> smallQuery, Supplier<?> largeQuery) {
+        assertAllocationPerElementBelow(MAX_BYTES_PER_ORDER, "order", LARGE - SMALL, smallQuery, largeQuery);
+    }
+}
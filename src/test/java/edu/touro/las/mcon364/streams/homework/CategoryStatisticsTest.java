@@ -0,0 +1,83 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for CategoryStatistics. Totals are checked against the sample
+ * data and parallel collection against sequential collection.
+ *
+ * Run with: mvn test -Dtest=CategoryStatisticsTest
+ */
+class CategoryStatisticsTest {
+
+    private StreamHomework hw;
+
+    @BeforeEach
+    void setUp() {
+        hw = new StreamHomework();
+    }
+
+    @Test
+    @DisplayName("Statistics for Electronics in the sample data")
+    void testElectronics() {
+        CategoryStatistics electronics = hw.getCategoryStatistics().get("Electronics");
+        assertEquals(hw.getCategorySummary().get("Electronics"), electronics.toSummary());
+        assertEquals(hw.getRevenueByCategory().get("Electronics"), electronics.getTotalRevenue(), 1e-6);
+        assertEquals(149.99 * 2, electronics.getMinLineTotal(), 1e-6);   // O001: 2x Headphones
+        assertEquals(999.99 * 2, electronics.getMaxLineTotal(), 1e-6);   // O007: 2x Laptop
+        assertEquals(electronics.getTotalRevenue() / electronics.getItemCount(),
+                electronics.getAverageLineTotal(), 1e-9);
+        assertTrue(electronics.getOrderCount() < electronics.getItemCount());
+    }
+
+    @Test
+    @DisplayName("Orders are counted once per category")
+    void testOrderCount() {
+        Map<String, CategoryStatistics> statistics = hw.getCategoryStatistics();
+        Map<String, Long> expected = new HashMap<>();
+        hw.getOrdersByMonth().values().stream().flatMap(List::stream)
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .forEach(order -> order.items().stream().map(item -> item.product().category()).distinct()
+                        .forEach(category -> expected.merge(category, 1L, Long::sum)));
+        assertEquals(expected.keySet(), statistics.keySet());
+        expected.forEach((category, count) -> assertEquals(count, statistics.get(category).getOrderCount()));
+    }
+
+    @Test
+    @DisplayName("Parallel collection merges to the sequential result")
+    void testParallelMerge() {
+        Product cheap = new Product("P1", "Pen", "Office", 1.5);
+        Product dear = new Product("P2", "Desk", "Office", 250.0);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            items.add(new OrderItem(i % 7 == 0 ? dear : cheap, 1 + i % 5));
+        }
+        CategoryStatistics sequential = items.stream().collect(CategoryStatistics.summarizing());
+        CategoryStatistics parallel = items.parallelStream().collect(CategoryStatistics.summarizing());
+        assertEquals(sequential.getTotalRevenue(), parallel.getTotalRevenue(), 1e-6);
+        assertEquals(sequential.getTotalQuantity(), parallel.getTotalQuantity());
+        assertEquals(10_000, parallel.getItemCount());
+        assertEquals(1.5, parallel.getMinLineTotal());
+        assertEquals(1250.0, parallel.getMaxLineTotal());
+
+        Map<String, CategorySummary> grouped = items.parallelStream()
+                .collect(Collectors.groupingByConcurrent(item -> item.product().category(), CategoryStatistics.summary()));
+        assertEquals(sequential.getTotalQuantity(), grouped.get("Office").totalQuantity());
+    }
+
+    @Test
+    @DisplayName("Empty statistics")
+    void testEmpty() {
+        CategoryStatistics empty = new CategoryStatistics();
+        assertEquals(0, empty.getItemCount());
+        assertEquals(0.0, empty.getAverageLineTotal());
+        assertEquals(Double.POSITIVE_INFINITY, empty.getMinLineTotal());
+        assertEquals(new CategorySummary(0.0, 0), empty.toSummary());
+    }
+}
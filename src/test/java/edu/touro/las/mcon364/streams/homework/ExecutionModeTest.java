@@ -0,0 +1,100 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Unit tests for ExecutionMode. Parallel modes must give the sequential results.
+ *
+ * Run with: mvn test -Dtest=ExecutionModeTest
+ */
+class ExecutionModeTest {
+
+    private static ForkJoinPool pool;
+
+    private StreamHomework sequential;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        sequential = new StreamHomework();
+    }
+
+    @Test
+    @DisplayName("Common-pool mode matches sequential results")
+    void testCommonPool() {
+        StreamHomework hw = new StreamHomework();
+        hw.setExecutionMode(ExecutionMode.commonPool());
+        assertSameResults(hw);
+    }
+
+    @Test
+    @DisplayName("Dedicated-pool mode matches sequential results")
+    void testDedicatedPool() {
+        StreamHomework hw = new StreamHomework();
+        hw.setExecutionMode(ExecutionMode.pool(pool));
+        assertSameResults(hw);
+    }
+
+    @Test
+    @DisplayName("Dedicated-pool mode runs queries inside that pool")
+    void testRunsInDedicatedPool() {
+        Thread worker = ExecutionMode.pool(pool).execute(Thread::currentThread);
+        assertInstanceOf(ForkJoinWorkerThread.class, worker);
+        assertSame(pool, ((ForkJoinWorkerThread) worker).getPool());
+        assertSame(Thread.currentThread(), ExecutionMode.sequential().execute(Thread::currentThread));
+    }
+
+    @Test
+    @DisplayName("setParallel switches between sequential and common pool")
+    void testSetParallel() {
+        StreamHomework hw = new StreamHomework();
+        assertFalse(hw.getExecutionMode().isParallel());
+        hw.setParallel(true);
+        assertSame(ExecutionMode.commonPool(), hw.getExecutionMode());
+    }
+
+    private void assertSameResults(StreamHomework hw) {
+        assertEquals(sequential.getTotalRevenue(), hw.getTotalRevenue(), 1e-6);
+        assertEquals(sequential.getOrderCount(OrderStatus.DELIVERED), hw.getOrderCount(OrderStatus.DELIVERED));
+        assertEquals(sequential.getUniqueProducts(), hw.getUniqueProducts());
+        assertEquals(sequential.getAverageOrderValue(), hw.getAverageOrderValue(), 1e-6);
+        assertMapsClose(sequential.getRevenueByCustomer(), hw.getRevenueByCustomer());
+        assertEquals(sequential.getTopCustomers(3), hw.getTopCustomers(3));
+        assertEquals(sequential.getCustomerOrderCounts(), hw.getCustomerOrderCounts());
+        assertEquals(new HashSet<>(sequential.getCustomersWithMultipleOrders()),
+                new HashSet<>(hw.getCustomersWithMultipleOrders()));
+        assertMapsClose(sequential.getRevenueByCategory(), hw.getRevenueByCategory());
+        assertEquals(sequential.getTopSellingProducts(1), hw.getTopSellingProducts(1));
+        assertEquals(sequential.getProductQuantitySold(), hw.getProductQuantitySold());
+        assertEquals(sequential.getCategorySummary().keySet(), hw.getCategorySummary().keySet());
+        sequential.getCategorySummary().forEach((category, summary) -> {
+            assertEquals(summary.totalRevenue(), hw.getCategorySummary().get(category).totalRevenue(), 1e-6);
+            assertEquals(summary.totalQuantity(), hw.getCategorySummary().get(category).totalQuantity());
+        });
+        assertSameOrders(sequential.getOrdersByMonth(), hw.getOrdersByMonth());
+        assertMapsClose(sequential.getMonthlyRevenue(), hw.getMonthlyRevenue());
+        LocalDate start = LocalDate.of(2024, 2, 1);
+        LocalDate end = LocalDate.of(2024, 2, 28);
+        assertEquals(new HashSet<>(sequential.getOrdersInDateRange(start, end)),
+                new HashSet<>(hw.getOrdersInDateRange(start, end)));
+        assertEquals(sequential.getDailyOrderCounts(), hw.getDailyOrderCounts());
+    }
+}
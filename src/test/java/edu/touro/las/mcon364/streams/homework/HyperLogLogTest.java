@@ -0,0 +1,138 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for HyperLogLog and the approximate distinct counts of
+ * StreamHomework. Estimates are checked against exact counts, within three
+ * standard errors for large inputs.
+ *
+ * Run with: mvn test -Dtest=HyperLogLogTest
+ */
+class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(int precision, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(precision);
+        for (int i = from; i < to; i++) {
+            sketch.add("C" + i);
+        }
+        return sketch;
+    }
+
+    private static void assertWithinError(long expected, HyperLogLog sketch) {
+        double tolerance = 3 * sketch.relativeStandardError() * expected;
+        assertEquals(expected, sketch.estimate(), tolerance, sketch.toString());
+    }
+
+    @Test
+    @DisplayName("Empty and small sketches")
+    void testSmallCounts() {
+        HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.estimate());
+        assertEquals(4096, sketch.sizeInBytes());
+
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < 100; i++) {
+                sketch.add("P" + i);
+            }
+        }
+        assertFalse(sketch.isEmpty());
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    @DisplayName("Large counts are within the standard error at every precision")
+    void testLargeCounts() {
+        for (int precision : new int[] {HyperLogLog.MIN_PRECISION, 10, 14}) {
+            assertWithinError(200_000, sketchOf(precision, 0, 200_000));
+        }
+        HyperLogLog codes = new HyperLogLog(12);
+        for (long code = 0; code < 1_000_000; code++) {
+            codes.add(code);
+        }
+        assertWithinError(1_000_000, codes);
+    }
+
+    @Test
+    @DisplayName("Merging gives the sketch of the union")
+    void testMerge() {
+        HyperLogLog left = sketchOf(12, 0, 60_000);
+        HyperLogLog right = sketchOf(12, 40_000, 100_000);
+        HyperLogLog all = sketchOf(12, 0, 100_000);
+
+        HyperLogLog union = left.copy().merge(right);
+        assertEquals(all.estimate(), union.estimate());
+        assertWithinError(100_000, union);
+        assertEquals(sketchOf(12, 0, 60_000).estimate(), left.estimate(), "copy() leaves the original alone");
+
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    @DisplayName("Unsupported precisions are rejected")
+    void testPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(HyperLogLog.MIN_PRECISION - 1));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.counting(3, String::valueOf));
+        assertThrows(IllegalArgumentException.class, () -> new StreamHomework().setSketchPrecision(19));
+    }
+
+    @Test
+    @DisplayName("Parallel collection merges to the sequential result")
+    void testParallelCollector() {
+        List<String> keys = IntStream.range(0, 50_000).mapToObj(i -> "SKU" + (i % 20_000)).toList();
+        long sequential = keys.stream().collect(HyperLogLog.counting(12, key -> key));
+        long parallel = keys.parallelStream().collect(HyperLogLog.counting(12, key -> key));
+        assertEquals(sequential, parallel);
+        assertEquals(20_000, sequential, 20_000 * 3 * 1.04 / 64);
+    }
+
+    @Test
+    @DisplayName("StreamHomework approximate counts match the exact ones on the sample data")
+    void testStreamHomework() {
+        StreamHomework hw = new StreamHomework();
+        assertEquals(hw.getUniqueProducts().size(), hw.getApproximateUniqueProductCount());
+        assertEquals(hw.getCustomerOrderCounts().size(), hw.getApproximateCustomerCount());
+
+        Map<YearMonth, HyperLogLog> byMonth = hw.getCustomerSketchesByMonth();
+        Map<YearMonth, List<CustomerOrder>> orders = hw.getOrdersByMonth();
+        assertEquals(orders.keySet(), byMonth.keySet());
+        orders.forEach((month, list) -> assertEquals(
+                list.stream().map(CustomerOrder::customerId).distinct().count(),
+                byMonth.get(month).estimate(), month.toString()));
+
+        HyperLogLog allMonths = new HyperLogLog(hw.getSketchPrecision());
+        byMonth.values().forEach(allMonths::merge);
+        assertEquals(hw.getApproximateCustomerCount(), allMonths.estimate());
+
+        Map<String, HyperLogLog> byCategory = hw.getProductSketchesByCategory();
+        Map<String, Long> expected = hw.getUniqueProducts().stream()
+                .collect(Collectors.groupingBy(Product::category, Collectors.counting()));
+        assertEquals(expected.keySet(), byCategory.keySet());
+        expected.forEach((category, count) -> assertEquals(count, byCategory.get(category).estimate()));
+    }
+
+    @Test
+    @DisplayName("Precision and parallel mode apply to the StreamHomework sketches")
+    void testStreamHomeworkSettings() {
+        StreamHomework sequential = new StreamHomework();
+        StreamHomework parallel = new StreamHomework();
+        sequential.setSketchPrecision(6);
+        parallel.setSketchPrecision(6);
+        parallel.setParallel(true);
+        assertEquals(6, parallel.getSketchPrecision());
+        assertTrue(parallel.getCustomerSketchesByMonth().values().stream().allMatch(s -> s.precision() == 6));
+        // 64 registers: estimates may be off for the sample data, but identically so in both modes
+        assertEquals(sequential.getApproximateCustomerCount(), parallel.getApproximateCustomerCount());
+        assertEquals(sequential.getApproximateUniqueProductCount(), parallel.getApproximateUniqueProductCount());
+    }
+}
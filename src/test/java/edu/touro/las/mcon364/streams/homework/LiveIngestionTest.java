@@ -0,0 +1,130 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.OrderAggregates.Metric;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Unit tests for addOrder/updateStatus. After every change the live instance
+ * must answer like a StreamHomework built from scratch over the same orders.
+ *
+ * Run with: mvn test -Dtest=LiveIngestionTest
+ */
+class LiveIngestionTest {
+
+    private static final Product LAPTOP = new Product("P001", "Laptop", "Electronics", 999.99);
+    private static final Product SHIRT = new Product("P004", "T-Shirt", "Clothing", 29.99);
+
+    private List<CustomerOrder> orders;
+    private StreamHomework live;
+
+    @BeforeEach
+    void setUp() {
+        orders = new ArrayList<>(List.of(
+                new CustomerOrder("O001", "C001", List.of(new OrderItem(LAPTOP, 1)),
+                        LocalDate.of(2024, 1, 15), OrderStatus.DELIVERED),
+                new CustomerOrder("O002", "C002", List.of(new OrderItem(SHIRT, 3)),
+                        LocalDate.of(2024, 2, 20), OrderStatus.PENDING),
+                new CustomerOrder("O003", "C001", List.of(new OrderItem(SHIRT, 1), new OrderItem(LAPTOP, 1)),
+                        LocalDate.of(2024, 2, 20), OrderStatus.SHIPPED)));
+        live = new StreamHomework(List.of(LAPTOP, SHIRT), orders);
+    }
+
+    @Test
+    @DisplayName("Added orders show up in every query")
+    void testAddOrder() {
+        live.getOrdersByMonth();  // build the date index so it has to be maintained
+        add(new CustomerOrder("O004", "C003", List.of(new OrderItem(LAPTOP, 2)),
+                LocalDate.of(2024, 2, 20), OrderStatus.DELIVERED));
+        add(new CustomerOrder("O005", "C002", List.of(new OrderItem(SHIRT, 5)),
+                LocalDate.of(2024, 4, 1), OrderStatus.DELIVERED));
+        assertMatchesRebuild();
+        assertEquals(List.of("O002", "O003", "O004"),
+                live.getOrdersInDateRange(LocalDate.of(2024, 2, 20), LocalDate.of(2024, 2, 20))
+                        .stream().map(CustomerOrder::id).toList());
+    }
+
+    @Test
+    @DisplayName("Status transitions update every query")
+    void testUpdateStatus() {
+        live.getOrdersByMonth();
+        update("O002", OrderStatus.SHIPPED);
+        update("O002", OrderStatus.DELIVERED);
+        update("O003", OrderStatus.DELIVERED);
+        assertMatchesRebuild();
+        update("O001", OrderStatus.CANCELLED);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    @DisplayName("Prefetched metrics stay live without a rebuild")
+    void testPrefetchedStaysLive() {
+        OrderAggregates bundle = live.prefetch(Metric.values());
+        add(new CustomerOrder("O004", "C003", List.of(new OrderItem(SHIRT, 2)),
+                LocalDate.of(2024, 3, 5), OrderStatus.DELIVERED));
+        update("O002", OrderStatus.DELIVERED);
+        update("O001", OrderStatus.CANCELLED);
+        assertMatchesRebuild();
+
+        // O001 was the only delivered order in January, so the month drops out
+        assertFalse(bundle.monthlyRevenue().containsKey(YearMonth.of(2024, 1)));
+        assertFalse(bundle.dailyRevenue().containsKey(LocalDate.of(2024, 1, 15)));
+        assertFalse(bundle.revenueByCustomer().containsKey("C001"));
+        assertEquals(1, bundle.orderCount(OrderStatus.CANCELLED));
+        assertEquals(0, bundle.orderCount(OrderStatus.PENDING));
+    }
+
+    @Test
+    @DisplayName("Duplicate ids and unknown orders are rejected")
+    void testRejectsBadUpdates() {
+        CustomerOrder duplicate = new CustomerOrder("O001", "C009", List.of(new OrderItem(SHIRT, 1)),
+                LocalDate.of(2024, 5, 1), OrderStatus.PENDING);
+        assertThrows(IllegalArgumentException.class, () -> live.addOrder(duplicate));
+        assertThrows(NoSuchElementException.class, () -> live.updateStatus("O999", OrderStatus.SHIPPED));
+        assertMatchesRebuild();
+    }
+
+    @Test
+    @DisplayName("Orders only move forward through the lifecycle")
+    void testTransitions() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.SHIPPED));
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.SHIPPED));
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.SHIPPED));
+        assertThrows(IllegalStateException.class, () -> live.updateStatus("O001", OrderStatus.PENDING));
+        assertEquals(OrderStatus.DELIVERED, live.getOrdersByMonth().get(YearMonth.of(2024, 1)).get(0).status());
+    }
+
+    private void add(CustomerOrder order) {
+        live.addOrder(order);
+        orders.add(order);
+    }
+
+    private void update(String orderId, OrderStatus status) {
+        CustomerOrder updated = live.updateStatus(orderId, status);
+        assertEquals(status, updated.status());
+        orders.replaceAll(order -> order.id().equals(orderId) ? updated : order);
+    }
+
+    private void assertMatchesRebuild() {
+        StreamHomework expected = new StreamHomework(List.of(LAPTOP, SHIRT), orders);
+        assertEquals(expected.getTotalRevenue(), live.getTotalRevenue(), 1e-6);
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(expected.getOrderCount(status), live.getOrderCount(status), status.name());
+        }
+        assertMapsClose(expected.getRevenueByCustomer(), live.getRevenueByCustomer());
+        assertEquals(expected.getCustomerOrderCounts(), live.getCustomerOrderCounts());
+        assertMapsClose(expected.getRevenueByCategory(), live.getRevenueByCategory());
+        assertEquals(expected.getProductQuantitySold(), live.getProductQuantitySold());
+        assertMapsClose(expected.getMonthlyRevenue(), live.getMonthlyRevenue());
+        assertMapsClose(expected.getDailyRevenue(), live.getDailyRevenue());
+        assertEquals(expected.getDailyOrderCounts(), live.getDailyOrderCounts());
+        assertEquals(expected.getOrdersByMonth(), live.getOrdersByMonth());
+    }
+}
@@ -0,0 +1,211 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.MaterializedViews.ViewStats;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Unit tests for MaterializedViews and its use by StreamHomework.
+ *
+ * Run with: mvn test -Dtest=MaterializedViewsTest
+ */
+class MaterializedViewsTest {
+
+    private static final Product PEN = new Product("P9", "Pen", "Office", 2.0);
+
+    private StreamHomework homework;
+    private StreamHomework uncached;
+    private MaterializedViews views;
+
+    @BeforeEach
+    void setUp() {
+        homework = new StreamHomework();
+        uncached = new StreamHomework();
+        views = homework.enableMaterializedViews();
+    }
+
+    private static CustomerOrder order(String id, String customer, OrderStatus status) {
+        return new CustomerOrder(id, customer, List.of(new OrderItem(PEN, 5)), LocalDate.of(2024, 3, 15), status);
+    }
+
+    private void bothAdd(CustomerOrder order) {
+        homework.addOrder(order);
+        uncached.addOrder(order);
+    }
+
+    private void bothUpdate(String orderId, OrderStatus status) {
+        homework.updateStatus(orderId, status);
+        uncached.updateStatus(orderId, status);
+    }
+
+    private void assertSameResults() {
+        assertEquals(uncached.getRevenueByCustomer(), homework.getRevenueByCustomer());
+        assertEquals(uncached.getTopCustomers(3), homework.getTopCustomers(3));
+        assertEquals(uncached.getCustomerOrderCounts(), homework.getCustomerOrderCounts());
+        assertEquals(uncached.getCustomersWithMultipleOrders(), homework.getCustomersWithMultipleOrders());
+        assertEquals(uncached.getRevenueByCategory(), homework.getRevenueByCategory());
+        assertEquals(uncached.getOrdersByMonth(), homework.getOrdersByMonth());
+        assertEquals(uncached.getMonthlyRevenue(), homework.getMonthlyRevenue());
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 12, 31);
+        assertEquals(uncached.getOrdersInDateRange(start, end), homework.getOrdersInDateRange(start, end));
+    }
+
+    @Test
+    @DisplayName("Repeated calls are served from the cache")
+    void testHits() {
+        Map<String, Double> first = homework.getRevenueByCustomer();
+        Map<String, Double> second = homework.getRevenueByCustomer();
+
+        assertSame(first, second);
+        assertEquals(new ViewStats(1, 1, 0, 0, 0), views.stats("revenueByCustomer"));
+        assertEquals(0.5, views.stats("revenueByCustomer").hitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Views are keyed by their arguments")
+    void testArguments() {
+        homework.getTopCustomers(2);
+        homework.getTopCustomers(3);
+        homework.getTopCustomers(2);
+
+        assertEquals(new ViewStats(1, 2, 0, 0, 0), views.stats("topCustomers"));
+        assertEquals(uncached.getTopCustomers(2), homework.getTopCustomers(2));
+    }
+
+    @Test
+    @DisplayName("Derived views reuse the cached upstream view")
+    void testDerivedViews() {
+        homework.getRevenueByCustomer();
+        homework.getTopCustomers(3);
+        homework.getCustomersWithMultipleOrders();
+
+        assertEquals(new ViewStats(1, 1, 0, 0, 0), views.stats("revenueByCustomer"));
+        assertEquals(new ViewStats(0, 1, 0, 0, 0), views.stats("customerOrderCounts"));
+    }
+
+    @Test
+    @DisplayName("Adding a non-delivered order keeps the revenue views")
+    void testAddPendingOrder() {
+        assertSameResults();
+        bothAdd(order("O900", "C001", OrderStatus.PENDING));
+
+        assertSameResults();
+        assertEquals(0, views.stats("revenueByCustomer").invalidations());
+        assertEquals(1, views.stats("customerOrderCounts").invalidations());
+        assertEquals(1, views.stats("ordersByMonth").invalidations());
+        assertEquals(1, views.stats("customerOrderCounts").rebuilds());
+    }
+
+    @Test
+    @DisplayName("Adding a delivered order drops the revenue views")
+    void testAddDeliveredOrder() {
+        assertSameResults();
+        bothAdd(order("O900", "C999", OrderStatus.DELIVERED));
+
+        assertSameResults();
+        assertEquals(1, views.stats("revenueByCustomer").invalidations());
+        assertEquals(1, views.stats("topCustomers").invalidations());
+        assertEquals(1, views.stats("monthlyRevenue").rebuilds());
+    }
+
+    @Test
+    @DisplayName("Status changes only drop views that depend on them")
+    void testStatusChanges() {
+        bothAdd(order("O900", "C999", OrderStatus.PENDING));
+        assertSameResults();
+
+        bothUpdate("O900", OrderStatus.SHIPPED);
+        assertSameResults();
+        assertEquals(0, views.stats("revenueByCustomer").invalidations());
+        assertEquals(0, views.stats("customerOrderCounts").invalidations());
+        assertEquals(1, views.stats("ordersByMonth").invalidations());
+
+        bothUpdate("O900", OrderStatus.DELIVERED);
+        assertSameResults();
+        assertEquals(1, views.stats("revenueByCustomer").invalidations());
+        assertEquals(1, views.stats("revenueByCategory").invalidations());
+    }
+
+    @Test
+    @DisplayName("Changes only drop the date ranges containing the order")
+    void testDateRanges() {
+        LocalDate march = LocalDate.of(2024, 3, 1);
+        LocalDate endOfMarch = LocalDate.of(2024, 3, 31);
+        LocalDate january = LocalDate.of(2024, 1, 1);
+        LocalDate endOfJanuary = LocalDate.of(2024, 1, 31);
+        homework.getOrdersInDateRange(march, endOfMarch);
+        homework.getOrdersInDateRange(january, endOfJanuary);
+
+        bothAdd(order("O900", "C001", OrderStatus.PENDING));   // 2024-03-15
+        bothUpdate("O900", OrderStatus.SHIPPED);
+
+        assertEquals(uncached.getOrdersInDateRange(january, endOfJanuary),
+                homework.getOrdersInDateRange(january, endOfJanuary));
+        assertEquals(uncached.getOrdersInDateRange(march, endOfMarch),
+                homework.getOrdersInDateRange(march, endOfMarch));
+        assertEquals(new ViewStats(1, 2, 1, 1, 0), views.stats("ordersInDateRange"));
+    }
+
+    @Test
+    @DisplayName("Each view keeps a bounded number of argument lists")
+    void testEviction() {
+        int limit = views.maxEntriesPerView();
+        for (int n = 1; n <= limit + 10; n++) {
+            homework.getTopCustomers(n);
+        }
+        homework.getTopCustomers(limit + 10);
+        homework.getTopCustomers(1);
+
+        assertEquals(limit + 1, views.size());   // topCustomers plus revenueByCustomer
+        assertEquals(new ViewStats(1, limit + 11, 0, 0, 11), views.stats("topCustomers"));
+        assertEquals(uncached.getTopCustomers(1), homework.getTopCustomers(1));
+    }
+
+    @Test
+    @DisplayName("Cached results are read-only")
+    void testReadOnly() {
+        assertThrows(UnsupportedOperationException.class, () -> homework.getRevenueByCustomer().put("X", 1.0));
+        assertThrows(UnsupportedOperationException.class, () -> homework.getTopCustomers(2).add("X"));
+    }
+
+    @Test
+    @DisplayName("Disabling the views goes back to computing every call")
+    void testDisable() {
+        homework.getRevenueByCustomer();
+        homework.disableMaterializedViews();
+
+        assertNotSame(homework.getRevenueByCustomer(), homework.getRevenueByCustomer());
+        assertEquals(uncached.getRevenueByCustomer(), homework.getRevenueByCustomer());
+        assertNotSame(views, homework.enableMaterializedViews());
+    }
+
+    @Test
+    @DisplayName("Views work on top of prefetched metrics")
+    void testWithPrefetch() {
+        homework.prefetch(OrderAggregates.Metric.REVENUE_BY_CUSTOMER, OrderAggregates.Metric.MONTHLY_REVENUE);
+        assertSameResults();
+        bothAdd(order("O900", "C001", OrderStatus.DELIVERED));
+        assertSameResults();
+    }
+
+    @Test
+    @DisplayName("clear drops every view and keeps the counters")
+    void testClear() {
+        homework.getRevenueByCustomer();
+        homework.getOrdersByMonth();
+        assertEquals(2, views.size());
+
+        views.clear();
+        homework.getRevenueByCustomer();
+
+        assertEquals(1, views.size());
+        assertEquals(new ViewStats(0, 1, 1, 1, 0), views.stats("revenueByCustomer"));
+        assertEquals(Set.of("ordersByMonth", "revenueByCustomer"), views.stats().keySet());
+    }
+}
@@ -0,0 +1,119 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Unit tests for OffHeapOrders. Every query is checked against StreamHomework.
+ *
+ * Run with: mvn test -Dtest=OffHeapOrdersTest
+ */
+class OffHeapOrdersTest {
+
+    private StreamHomework hw;
+    private OffHeapOrders orders;
+
+    @BeforeEach
+    void setUp() {
+        hw = new StreamHomework();
+        orders = hw.toOffHeap();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orders.close();
+    }
+
+    @Test
+    @DisplayName("Analytics match StreamHomework, sequential and parallel")
+    void testAnalytics() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            orders.setParallel(parallel);
+            assertEquals(10, orders.orderCount());
+            assertEquals(20, orders.itemCount());
+            assertEquals(hw.getTotalRevenue(), orders.getTotalRevenue(), 1e-6);
+            for (OrderStatus status : OrderStatus.values()) {
+                assertEquals(hw.getOrderCount(status), orders.getOrderCount(status));
+            }
+            assertMapsClose(hw.getRevenueByCustomer(), orders.getRevenueByCustomer());
+            assertMapsClose(hw.getRevenueByCategory(), orders.getRevenueByCategory());
+            assertEquals(hw.getProductQuantitySold(), orders.getProductQuantitySold());
+            assertEquals(hw.getTopSellingProducts(3), orders.getTopSellingProducts(3));
+            assertEquals(hw.getCategorySummary().keySet(), orders.getCategorySummary().keySet());
+        }
+    }
+
+    @Test
+    @DisplayName("Status updates rewrite the record in place")
+    void testUpdateStatus() {
+        hw.updateStatus("O004", OrderStatus.DELIVERED);
+        orders.updateStatus("O004", OrderStatus.DELIVERED);
+
+        assertMapsClose(hw.getRevenueByCategory(), orders.getRevenueByCategory());
+        assertThrows(IllegalStateException.class, () -> orders.updateStatus("O004", OrderStatus.PENDING));
+        assertThrows(NoSuchElementException.class, () -> orders.updateStatus("O999", OrderStatus.DELIVERED));
+        CustomerOrder duplicate = new CustomerOrder("O001", "C001", List.of(),
+                LocalDate.of(2024, 1, 1), OrderStatus.PENDING);
+        assertThrows(IllegalArgumentException.class, () -> orders.add(duplicate));
+    }
+
+    @Test
+    @DisplayName("Orders spanning several segments are all visited in parallel")
+    void testManySegments() {
+        Product pen = new Product("P100", "Pen", "Office", 1.5);
+        Product pad = new Product("P101", "Pad", "Office", 2.0);
+        List<OrderItem> items = List.of(new OrderItem(pen, 1), new OrderItem(pad, 1));
+        try (OffHeapOrders large = new OffHeapOrders()) {
+            int orderCount = 2 * OffHeapOrders.SEGMENT_RECORDS + 1;
+            for (int o = 0; o < orderCount; o++) {
+                large.add(new CustomerOrder("L" + o, "C" + (o % 7), items,
+                        LocalDate.of(2024, 1, 1), OrderStatus.DELIVERED));
+            }
+            large.setParallel(true);
+
+            assertEquals(orderCount * 2, large.itemCount());
+            assertEquals(orderCount, large.orders().count());
+            assertEquals(orderCount * 3.5, large.getRevenueByCategory().get("Office"), 1e-6);
+            assertEquals(orderCount, large.getProductQuantitySold().get("P100"));
+            assertEquals(orderCount * 3.5, large.getRevenueByCustomer().values().stream()
+                    .mapToDouble(Double::doubleValue).sum(), 1e-6);
+        }
+    }
+
+    @Test
+    @DisplayName("Order ids are found after the off-heap index grows")
+    void testManyOrderIds() {
+        int orderCount = 3 * OffHeapIdIndex.TEXT_SEGMENT_BYTES / 20;
+        try (OffHeapOrders large = new OffHeapOrders()) {
+            for (int o = 0; o < orderCount; o++) {
+                large.add(new CustomerOrder("ORDER-" + o, "C" + (o % 7), List.of(),
+                        LocalDate.of(2024, 1, 1), OrderStatus.PENDING));
+            }
+            for (int o = 0; o < orderCount; o += 997) {
+                large.updateStatus("ORDER-" + o, OrderStatus.SHIPPED);
+            }
+
+            assertEquals((orderCount + 996) / 997, large.getOrderCount(OrderStatus.SHIPPED));
+            assertThrows(IllegalStateException.class, () -> large.updateStatus("ORDER-0", OrderStatus.PENDING));
+            assertThrows(NoSuchElementException.class, () -> large.updateStatus("ORDER-" + orderCount,
+                    OrderStatus.SHIPPED));
+            CustomerOrder duplicate = new CustomerOrder("ORDER-" + (orderCount - 1), "C001", List.of(),
+                    LocalDate.of(2024, 1, 1), OrderStatus.PENDING);
+            assertThrows(IllegalArgumentException.class, () -> large.add(duplicate));
+        }
+    }
+
+    @Test
+    @DisplayName("A closed repository rejects every call")
+    void testClose() {
+        orders.close();
+        assertThrows(IllegalStateException.class, () -> orders.getRevenueByCategory());
+        assertThrows(IllegalStateException.class, () -> orders.getOrderCount(OrderStatus.PENDING));
+    }
+}
@@ -0,0 +1,81 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.OrderAggregates.Metric;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for OrderAggregates. Every metric is checked against StreamHomework.
+ *
+ * Run with: mvn test -Dtest=OrderAggregatesTest
+ */
+class OrderAggregatesTest {
+
+    private StreamHomework hw;
+
+    @BeforeEach
+    void setUp() {
+        hw = new StreamHomework();
+    }
+
+    @Test
+    @DisplayName("One pass computes every metric")
+    void testAllMetrics() {
+        OrderAggregates aggregates = hw.aggregate(EnumSet.allOf(Metric.class));
+        assertBundleMatches(aggregates);
+    }
+
+    @Test
+    @DisplayName("Collector merges correctly on a parallel stream")
+    void testParallelCollector() {
+        List<CustomerOrder> orders = new ArrayList<>();
+        hw.getOrdersByMonth().values().forEach(orders::addAll);
+        OrderAggregates aggregates = orders.parallelStream()
+                .collect(OrderAggregates.collector(EnumSet.allOf(Metric.class)));
+        assertBundleMatches(aggregates);
+    }
+
+    @Test
+    @DisplayName("Metrics that were not requested are rejected")
+    void testUnrequestedMetric() {
+        OrderAggregates aggregates = hw.aggregate(EnumSet.of(Metric.TOTAL_REVENUE));
+        assertTrue(aggregates.covers(Metric.TOTAL_REVENUE));
+        assertFalse(aggregates.covers(Metric.MONTHLY_REVENUE));
+        assertThrows(IllegalStateException.class, aggregates::monthlyRevenue);
+    }
+
+    @Test
+    @DisplayName("Prefetched metrics are served by the analytics methods")
+    void testPrefetch() {
+        StreamHomework plain = new StreamHomework();
+        OrderAggregates bundle = hw.prefetch(Metric.TOTAL_REVENUE, Metric.REVENUE_BY_CUSTOMER,
+                Metric.REVENUE_BY_CATEGORY, Metric.MONTHLY_REVENUE, Metric.DAILY_ORDER_COUNTS);
+        assertEquals(bundle.totalRevenue(), hw.getTotalRevenue());
+        assertEquals(plain.getTotalRevenue(), hw.getTotalRevenue(), 1e-6);
+        assertEquals(plain.getRevenueByCustomer().keySet(), hw.getRevenueByCustomer().keySet());
+        assertEquals(plain.getDailyOrderCounts(), hw.getDailyOrderCounts());
+        assertEquals(plain.getTopCustomers(3), hw.getTopCustomers(3));
+    }
+
+    private void assertBundleMatches(OrderAggregates aggregates) {
+        assertEquals(hw.getTotalRevenue(), aggregates.totalRevenue(), 1e-6);
+        assertEquals(hw.getAverageOrderValue(), aggregates.averageOrderValue(), 1e-6);
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(hw.getOrderCount(status), aggregates.orderCount(status));
+        }
+        assertMapsClose(hw.getRevenueByCustomer(), aggregates.revenueByCustomer());
+        assertEquals(hw.getCustomerOrderCounts(), aggregates.customerOrderCounts());
+        assertMapsClose(hw.getRevenueByCategory(), aggregates.revenueByCategory());
+        assertEquals(hw.getProductQuantitySold(), aggregates.productQuantitySold());
+        assertEquals(hw.getCategorySummary().keySet(), aggregates.categorySummary().keySet());
+        hw.getCategorySummary().forEach((category, summary) ->
+                assertEquals(summary.totalQuantity(), aggregates.categorySummary().get(category).totalQuantity()));
+        assertMapsClose(hw.getMonthlyRevenue(), aggregates.monthlyRevenue());
+        assertEquals(hw.getDailyOrderCounts(), aggregates.dailyOrderCounts());
+    }
+}
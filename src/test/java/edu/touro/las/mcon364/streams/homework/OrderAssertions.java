@@ -0,0 +1,34 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+
+/**
+ * Assertions shared by the tests that check another order representation
+ * against StreamHomework.
+ */
+final class OrderAssertions {
+
+    private OrderAssertions() {
+    }
+
+    /**
+     * Same keys, and every value within 1e-6 of the expected one.
+     */
+    static <K> void assertMapsClose(Map<K, Double> expected, Map<K, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, value) -> assertEquals(value, actual.get(key), 1e-6, String.valueOf(key)));
+    }
+
+    /**
+     * Same keys, and the same orders under every key in any order.
+     */
+    static <K> void assertSameOrders(Map<K, List<CustomerOrder>> expected,
+                                     Map<K, List<CustomerOrder>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((key, orders) -> assertEquals(new HashSet<>(orders), new HashSet<>(actual.get(key))));
+    }
+}
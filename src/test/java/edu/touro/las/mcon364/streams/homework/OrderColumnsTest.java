@@ -0,0 +1,84 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Unit tests for OrderColumns. Every query is checked against StreamHomework.
+ *
+ * Run with: mvn test -Dtest=OrderColumnsTest
+ */
+class OrderColumnsTest {
+
+    private StreamHomework hw;
+    private OrderColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        hw = new StreamHomework();
+        columns = hw.toColumns();
+    }
+
+    @Test
+    @DisplayName("Columns hold every order and line item")
+    void testCounts() {
+        assertEquals(10, columns.orderCount());
+        assertEquals(20, columns.itemCount());
+    }
+
+    @Test
+    @DisplayName("Basic analytics match StreamHomework")
+    void testBasicAnalytics() {
+        assertEquals(hw.getTotalRevenue(), columns.getTotalRevenue(), 1e-6);
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(hw.getOrderCount(status), columns.getOrderCount(status));
+        }
+        assertEquals(hw.getUniqueProducts(), columns.getUniqueProducts());
+        assertEquals(hw.getAverageOrderValue(), columns.getAverageOrderValue(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Customer analytics match StreamHomework")
+    void testCustomerAnalytics() {
+        assertMapsClose(hw.getRevenueByCustomer(), columns.getRevenueByCustomer());
+        assertEquals(hw.getTopCustomers(3), columns.getTopCustomers(3));
+        assertEquals(hw.getCustomerOrderCounts(), columns.getCustomerOrderCounts());
+        assertEquals(new HashSet<>(hw.getCustomersWithMultipleOrders()),
+                new HashSet<>(columns.getCustomersWithMultipleOrders()));
+    }
+
+    @Test
+    @DisplayName("Product analytics match StreamHomework")
+    void testProductAnalytics() {
+        assertMapsClose(hw.getRevenueByCategory(), columns.getRevenueByCategory());
+        assertEquals(hw.getProductQuantitySold(), columns.getProductQuantitySold());
+        assertEquals(5, columns.getTopSellingProducts(5).size());
+        assertEquals(hw.getTopSellingProducts(1), columns.getTopSellingProducts(1));
+
+        Map<String, CategorySummary> expected = hw.getCategorySummary();
+        Map<String, CategorySummary> actual = columns.getCategorySummary();
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((category, summary) -> {
+            assertEquals(summary.totalRevenue(), actual.get(category).totalRevenue(), 1e-6);
+            assertEquals(summary.totalQuantity(), actual.get(category).totalQuantity());
+        });
+    }
+
+    @Test
+    @DisplayName("Time-based analytics match StreamHomework")
+    void testTimeBasedAnalytics() {
+        assertSameOrders(hw.getOrdersByMonth(), columns.getOrdersByMonth());
+        assertMapsClose(hw.getMonthlyRevenue(), columns.getMonthlyRevenue());
+        LocalDate start = LocalDate.of(2024, 2, 1);
+        LocalDate end = LocalDate.of(2024, 2, 28);
+        assertEquals(new HashSet<>(hw.getOrdersInDateRange(start, end)),
+                new HashSet<>(columns.getOrdersInDateRange(start, end)));
+        assertEquals(hw.getDailyOrderCounts(), columns.getDailyOrderCounts());
+    }
+}
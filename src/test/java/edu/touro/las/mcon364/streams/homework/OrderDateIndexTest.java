@@ -0,0 +1,85 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Unit tests for OrderDateIndex. Range lookups are checked against a linear scan.
+ *
+ * Run with: mvn test -Dtest=OrderDateIndexTest
+ */
+class OrderDateIndexTest {
+
+    private List<CustomerOrder> orders;
+    private OrderDateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product("P001", "Laptop", "Electronics", 10.0);
+        Random random = new Random(7);
+        OrderStatus[] statuses = OrderStatus.values();
+        orders = new ArrayList<>();
+        for (int o = 0; o < 500; o++) {
+            orders.add(new CustomerOrder("O" + o, "C" + (o % 20),
+                    List.of(new OrderItem(product, 1 + random.nextInt(3))),
+                    LocalDate.of(2023, 11, 1).plusDays(random.nextInt(150)),
+                    statuses[random.nextInt(statuses.length)]));
+        }
+        index = OrderDateIndex.of(orders, false);
+    }
+
+    @Test
+    @DisplayName("Range lookups match a linear scan")
+    void testRangeMatchesScan() {
+        LocalDate[][] ranges = {
+                {LocalDate.of(2023, 11, 15), LocalDate.of(2024, 2, 10)},
+                {LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)},
+                {LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 5)},
+                {LocalDate.of(2020, 1, 1), LocalDate.of(2030, 1, 1)},
+                {LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)}
+        };
+        for (LocalDate[] range : ranges) {
+            List<CustomerOrder> expected = orders.stream()
+                    .filter(o -> !o.orderDate().isBefore(range[0]) && !o.orderDate().isAfter(range[1]))
+                    .sorted(Comparator.comparing(CustomerOrder::orderDate))
+                    .toList();
+            assertEquals(expected, index.range(range[0], range[1]), Arrays.toString(range));
+        }
+    }
+
+    @Test
+    @DisplayName("An inverted range is empty")
+    void testInvertedRange() {
+        assertTrue(index.range(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Month partitions hold every order in date order")
+    void testByMonth() {
+        Map<YearMonth, List<CustomerOrder>> byMonth = index.byMonth();
+        assertEquals(orders.size(), byMonth.values().stream().mapToInt(List::size).sum());
+        byMonth.forEach((month, monthOrders) -> {
+            for (int i = 0; i < monthOrders.size(); i++) {
+                assertEquals(month, YearMonth.from(monthOrders.get(i).orderDate()));
+                if (i > 0) {
+                    assertFalse(monthOrders.get(i).orderDate().isBefore(monthOrders.get(i - 1).orderDate()));
+                }
+            }
+        });
+        assertThrows(UnsupportedOperationException.class, () -> byMonth.values().iterator().next().clear());
+    }
+
+    @Test
+    @DisplayName("Precomputed monthly revenue matches StreamHomework")
+    void testMonthlyRevenue() {
+        Map<YearMonth, Double> expected = OrderColumns.of(orders).getMonthlyRevenue();
+        Map<YearMonth, Double> actual = index.monthlyRevenue();
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((month, revenue) -> assertEquals(revenue, actual.get(month), 1e-6));
+    }
+}
@@ -0,0 +1,125 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Unit tests for OrderFile. Every query is checked against StreamHomework.
+ *
+ * Run with: mvn test -Dtest=OrderFileTest
+ */
+class OrderFileTest {
+
+    @TempDir
+    Path dir;
+
+    private StreamHomework hw;
+    private OrderFile file;
+
+    @BeforeEach
+    void setUp() {
+        hw = new StreamHomework();
+        Path path = dir.resolve("orders.bin");
+        hw.writeOrderFile(path);
+        file = OrderFile.open(path);
+    }
+
+    @Test
+    @DisplayName("File holds the catalog, every order and every line item")
+    void testRoundTrip() {
+        assertEquals(10, file.orderCount());
+        assertEquals(20, file.itemCount());
+        assertEquals(10, file.productCount());
+
+        StreamHomework reloaded = file.toHomework();
+        assertEquals(hw.getNeverOrderedProducts(), reloaded.getNeverOrderedProducts());
+        assertEquals(new HashSet<>(hw.getOrdersByMonth().values().stream().flatMap(List::stream).toList()),
+                new HashSet<>(file.orders()));
+    }
+
+    @Test
+    @DisplayName("Analytics over the mapped file match StreamHomework")
+    void testAnalytics() {
+        assertEquals(hw.getTotalRevenue(), file.getTotalRevenue(), 1e-6);
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(hw.getOrderCount(status), file.getOrderCount(status));
+        }
+        assertEquals(hw.getAverageOrderValue(), file.getAverageOrderValue(), 1e-6);
+        assertMapsClose(hw.getRevenueByCustomer(), file.getRevenueByCustomer());
+        assertEquals(hw.getTopCustomers(3), file.getTopCustomers(3));
+        assertEquals(hw.getCustomerOrderCounts(), file.getCustomerOrderCounts());
+        assertMapsClose(hw.getRevenueByCategory(), file.getRevenueByCategory());
+        assertEquals(hw.getProductQuantitySold(), file.getProductQuantitySold());
+        assertEquals(hw.getTopSellingProducts(3), file.getTopSellingProducts(3));
+        assertMapsClose(hw.getMonthlyRevenue(), file.getMonthlyRevenue());
+        assertEquals(hw.getDailyOrderCounts(), file.getDailyOrderCounts());
+    }
+
+    @Test
+    @DisplayName("Files that are not order files are rejected")
+    void testNotAnOrderFile() throws IOException {
+        Path other = dir.resolve("other.bin");
+        Files.write(other, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> OrderFile.open(other));
+    }
+
+    @Test
+    @DisplayName("Headers that do not match the file are rejected")
+    void testCorruptHeader() throws IOException {
+        Path valid = dir.resolve("orders.bin");
+        byte[] bytes = Files.readAllBytes(valid);
+        ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int products = header.getInt(32);
+        // field offset -> value that breaks it
+        Map<Integer, Integer> corruptions = Map.of(
+                8, -1,                  // negative string count
+                12, 1_000_000,          // products run past the orders
+                20, 1_000_000,          // items run past the end of the file
+                24, 0,                  // string offsets overlap the header
+                28, products + 8,       // string data runs past the products
+                36, products,           // orders overlap the products
+                40, bytes.length,       // items start at the end of the file
+                44, 1);                 // reserved field set
+        corruptions.forEach((offset, value) -> {
+            byte[] copy = bytes.clone();
+            ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+            Path corrupt = dir.resolve("corrupt-" + offset + ".bin");
+            try {
+                Files.write(corrupt, copy);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            assertThrows(IllegalArgumentException.class, () -> OrderFile.open(corrupt), "field at " + offset);
+        });
+        Files.write(dir.resolve("truncated.bin"), Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> OrderFile.open(dir.resolve("truncated.bin")));
+    }
+
+    @Test
+    @DisplayName("Rewriting a file replaces it whole and leaves open files alone")
+    void testRewrite() throws IOException {
+        Path path = dir.resolve("orders.bin");
+        hw.addOrder(new CustomerOrder("O011", "C001", List.of(), LocalDate.of(2024, 4, 1),
+                OrderStatus.PENDING));
+        hw.writeOrderFile(path);
+
+        assertEquals(10, file.orderCount(), "the open file still reads the old data");
+        assertEquals(11, OrderFile.open(path).orderCount());
+        try (var entries = Files.list(dir)) {
+            assertEquals(List.of(path), entries.toList(), "no temporary file is left behind");
+        }
+    }
+}
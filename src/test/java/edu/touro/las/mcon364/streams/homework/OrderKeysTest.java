@@ -0,0 +1,120 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static edu.touro.las.mcon364.streams.homework.OrderAssertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for Dictionary, OrderKeys and CodeTotals. The encoded
+ * aggregations are checked against plain groupingBy.
+ *
+ * Run with: mvn test -Dtest=OrderKeysTest
+ */
+class OrderKeysTest {
+
+    private List<CustomerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(3);
+        List<Product> catalog = new ArrayList<>();
+        for (int p = 0; p < 200; p++) {
+            catalog.add(new Product("P" + p, "Product " + p, "Category " + (p % 9), 1 + random.nextInt(500)));
+        }
+        OrderStatus[] statuses = OrderStatus.values();
+        orders = new ArrayList<>();
+        for (int o = 0; o < 20_000; o++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                items.add(new OrderItem(catalog.get(random.nextInt(catalog.size())), 1 + random.nextInt(5)));
+            }
+            // ~10k distinct customers, above the size where CodeTotals switches to shared arrays
+            orders.add(new CustomerOrder("O" + o, "C" + random.nextInt(10_000), items,
+                    LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)),
+                    statuses[random.nextInt(statuses.length)]));
+        }
+    }
+
+    @Test
+    @DisplayName("Dictionary assigns dense codes in order of first appearance")
+    void testDictionary() {
+        Dictionary<String> dictionary = new Dictionary<>();
+        assertEquals(0, dictionary.encode("b"));
+        assertEquals(1, dictionary.encode("a"));
+        assertEquals(0, dictionary.encode("b"));
+        assertEquals(2, dictionary.size());
+        assertEquals("a", dictionary.decode(1));
+        assertEquals(-1, dictionary.indexOf("c"));
+        assertEquals(List.of("b", "a"), dictionary.values());
+    }
+
+    @Test
+    @DisplayName("Keys line up with order positions, also after appends")
+    void testKeys() {
+        OrderKeys keys = OrderKeys.of(orders.subList(0, 5));
+        for (CustomerOrder order : orders.subList(5, 1000)) {
+            keys.add(order);
+        }
+        assertEquals(1000, keys.orderCount());
+        for (int o = 0; o < 1000; o++) {
+            CustomerOrder order = orders.get(o);
+            assertEquals(order.customerId(), keys.customers().decode(keys.customer(o)));
+            for (int i = 0; i < order.items().size(); i++) {
+                Product product = order.items().get(i).product();
+                int code = keys.product(o, i);
+                assertEquals(product, keys.decodeProduct(code));
+                assertEquals(product.category(), keys.categories().decode(keys.category(code)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Encoded aggregations match groupingBy, sequential and parallel")
+    void testAggregations() {
+        Map<String, Double> revenueByCustomer = orders.stream()
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .collect(Collectors.groupingBy(CustomerOrder::customerId, Collectors.summingDouble(CustomerOrder::getTotal)));
+        Map<String, Long> orderCounts = orders.stream()
+                .collect(Collectors.groupingBy(CustomerOrder::customerId, Collectors.counting()));
+        Map<String, Integer> quantities = orders.stream().flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().id(), Collectors.summingInt(OrderItem::quantity)));
+        Map<String, Double> revenueByCategory = orders.stream()
+                .filter(order -> order.status() == OrderStatus.DELIVERED)
+                .flatMap(order -> order.items().stream())
+                .collect(Collectors.groupingBy(item -> item.product().category(),
+                        Collectors.summingDouble(OrderItem::getLineTotal)));
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            StreamHomework hw = new StreamHomework(List.of(), orders);
+            hw.setParallel(parallel);
+            assertMapsClose(revenueByCustomer, hw.getRevenueByCustomer());
+            assertEquals(orderCounts, hw.getCustomerOrderCounts());
+            assertEquals(quantities, hw.getProductQuantitySold());
+            assertMapsClose(revenueByCategory, hw.getRevenueByCategory());
+            hw.getCategorySummary().forEach((category, summary) ->
+                    assertEquals(revenueByCategory.get(category), summary.totalRevenue(), 1e-6));
+        }
+    }
+
+    @Test
+    @DisplayName("CodeTotals gives the same totals on every path")
+    void testCodeTotalsPaths() {
+        for (int codes : new int[] {10, 100_000}) {
+            CodeTotals sequential = CodeTotals.collect(codes, 200_000, false,
+                    (sink, i) -> sink.add(i % codes, 0.5, i % 3));
+            CodeTotals parallel = CodeTotals.collect(codes, 200_000, true,
+                    (sink, i) -> sink.add(i % codes, 0.5, i % 3));
+            for (int code = 0; code < codes; code++) {
+                assertEquals(sequential.count(code), parallel.count(code));
+                assertEquals(sequential.sum(code), parallel.sum(code), 1e-9);
+                assertEquals(sequential.units(code), parallel.units(code));
+            }
+        }
+    }
+}
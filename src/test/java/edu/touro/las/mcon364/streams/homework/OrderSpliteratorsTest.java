@@ -0,0 +1,104 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for OrderSpliterators.
+ *
+ * Run with: mvn test -Dtest=OrderSpliteratorsTest
+ */
+class OrderSpliteratorsTest {
+
+    private static final Product PEN = new Product("P1", "Pen", "Office", 1.0);
+
+    private List<CustomerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        // Many small orders, some empty ones, and one order holding most items
+        orders = new ArrayList<>();
+        for (int o = 0; o < 200; o++) {
+            int itemCount = o == 150 ? 5_000 : o % 10 == 0 ? 0 : 1 + o % 3;
+            orders.add(order(o, itemCount));
+        }
+    }
+
+    private static CustomerOrder order(int o, int itemCount) {
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItem(PEN, o * 10_000 + i + 1));
+        }
+        return new CustomerOrder("O" + o, "C" + o, List.copyOf(items),
+                LocalDate.of(2024, 1, 1), OrderStatus.DELIVERED);
+    }
+
+    @Test
+    @DisplayName("Items come out flattened in order, sequential and parallel")
+    void testItems() {
+        List<OrderItem> expected = orders.stream().flatMap(order -> order.items().stream()).toList();
+
+        assertEquals(expected, OrderSpliterators.items(orders, false).toList());
+        assertEquals(expected, OrderSpliterators.items(orders, true).toList());
+        assertEquals(expected.size(), OrderSpliterators.items(orders, true).count());
+    }
+
+    @Test
+    @DisplayName("Item splits halve the items, even inside one large order")
+    void testItemSplit() {
+        Spliterator<OrderItem> suffix = OrderSpliterators.items(orders, false).spliterator();
+        long total = suffix.estimateSize();
+        Spliterator<OrderItem> prefix = suffix.trySplit();
+
+        assertNotNull(prefix);
+        assertEquals(total / 2, prefix.estimateSize());
+        assertEquals(total - total / 2, suffix.estimateSize());
+        List<OrderItem> joined = new ArrayList<>();
+        prefix.forEachRemaining(joined::add);
+        suffix.forEachRemaining(joined::add);
+        assertEquals(orders.stream().flatMap(order -> order.items().stream()).toList(), joined);
+    }
+
+    @Test
+    @DisplayName("Order splits balance the items, not the orders")
+    void testOrderSplit() {
+        int[] offsets = OrderSpliterators.itemOffsets(orders);
+        Spliterator.OfInt suffix = OrderSpliterators.orderPositions(offsets, orders.size(), false).spliterator();
+        Spliterator.OfInt prefix = suffix.trySplit();
+
+        List<Integer> first = new ArrayList<>();
+        prefix.forEachRemaining((int o) -> first.add(o));
+        // The heavy order 150 is alone on its side of the split
+        assertTrue(first.size() > 100, "prefix takes the light orders: " + first.size());
+        assertEquals(IntStream.range(0, first.size()).boxed().toList(), first);
+
+        List<Integer> all = OrderSpliterators.orderPositions(offsets, orders.size(), true).boxed().toList();
+        assertEquals(IntStream.range(0, orders.size()).boxed().toList(), all);
+    }
+
+    @Test
+    @DisplayName("StreamHomework results do not change with the weighted splits")
+    void testStreamHomework() {
+        StreamHomework sequential = new StreamHomework();
+        StreamHomework parallel = new StreamHomework();
+        parallel.setParallel(true);
+
+        assertEquals(sequential.getUniqueProducts(), parallel.getUniqueProducts());
+        assertEquals(sequential.getProductQuantitySold(), parallel.getProductQuantitySold());
+        assertEquals(sequential.getTopSellingProducts(3), parallel.getTopSellingProducts(3));
+        assertEquals(sequential.getCategoryStatistics().keySet(), parallel.getCategoryStatistics().keySet());
+    }
+
+    @Test
+    @DisplayName("No orders gives empty streams")
+    void testEmpty() {
+        assertEquals(0, OrderSpliterators.items(List.of(), true).count());
+        assertEquals(0, OrderSpliterators.orderPositions(new int[1], 0, true).count());
+    }
+}
@@ -0,0 +1,120 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Unit tests for QueryServer and Json. Responses are compared with the JSON
+ * of the StreamHomework results.
+ *
+ * Run with: mvn test -Dtest=QueryServerTest
+ */
+class QueryServerTest {
+
+    private static StreamHomework hw;
+    private static QueryServer server;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void setUp() {
+        hw = new StreamHomework();
+        server = QueryServer.start(hw, 0);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.close();
+        client.close();
+    }
+
+    private static HttpResponse<String> get(String pathAndQuery) throws IOException, InterruptedException {
+        URI uri = URI.create("http://localhost:" + server.port() + pathAndQuery);
+        return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void assertJson(Object expected, String pathAndQuery) throws Exception {
+        HttpResponse<String> response = get(pathAndQuery);
+        assertEquals(200, response.statusCode(), response.body());
+        assertEquals(Json.toJson(expected), response.body());
+    }
+
+    @Test
+    @DisplayName("Queries return the StreamHomework results as JSON")
+    void testQueries() throws Exception {
+        assertJson(hw.getTotalRevenue(), "/revenue");
+        assertJson(hw.getTopCustomers(3), "/top-customers?n=3");
+        assertJson(hw.getOrderCount(OrderStatus.SHIPPED), "/order-count?status=shipped");
+        assertJson(hw.getCategorySummary(), "/category-summary");
+        assertJson(hw.getOrdersInDateRange(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 28)),
+                "/orders?start=2024-02-01&end=2024-02-28");
+        assertJson(hw.getMonthlyRevenue(), "/monthly-revenue");
+    }
+
+    @Test
+    @DisplayName("Every route answers; unimplemented bonus queries are not served")
+    void testAllRoutes() throws Exception {
+        for (String path : server.paths()) {
+            HttpResponse<String> response = get(path + "?n=2&status=DELIVERED&start=2024-01-01&end=2024-12-31");
+            assertEquals(200, response.statusCode(), path + ": " + response.body());
+            assertNotEquals("null", response.body(), path);
+        }
+        for (String bonus : List.of("/never-ordered-products", "/most-popular-by-category", "/monthly-growth-rate")) {
+            assertFalse(server.paths().contains(bonus), bonus);
+        }
+    }
+
+    @Test
+    @DisplayName("Bad requests get an error status and a JSON message")
+    void testErrors() throws Exception {
+        assertEquals(400, get("/top-customers").statusCode());
+        assertEquals(400, get("/top-customers?n=abc").statusCode());
+        assertEquals(400, get("/orders?start=2024-13-01&end=2024-12-31").statusCode());
+        assertEquals(400, get("/order-count?status=LOST").statusCode());
+        HttpResponse<String> unknown = get("/nothing");
+        assertEquals(404, unknown.statusCode());
+        assertEquals("{\"error\":\"Unknown query: /nothing\"}", unknown.body());
+
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + "/revenue"))
+                .POST(HttpRequest.BodyPublishers.ofString("{}")).build();
+        assertEquals(405, client.send(post, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests are all answered")
+    void testConcurrentRequests() throws Exception {
+        String expected = Json.toJson(hw.getRevenueByCustomer());
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                responses.add(clients.submit(() -> get("/revenue-by-customer")));
+            }
+            for (Future<HttpResponse<String>> response : responses) {
+                assertEquals(expected, response.get().body());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Json escapes strings, writes records as objects and keeps record map keys as JSON")
+    void testJson() {
+        assertEquals("\"a\\\"b\\\\c\\n\\u0001\"", Json.toJson("a\"b\\c\n\u0001"));
+        assertEquals("{\"id\":\"P1\",\"name\":\"Pen\",\"category\":\"Office\",\"price\":1.5}",
+                Json.toJson(new Product("P1", "Pen", "Office", 1.5)));
+        assertEquals("[1,null,true]", Json.toJson(Arrays.asList(1, Double.NaN, true)));
+        assertEquals("{\"2024-01\":1}", Json.toJson(Map.of(java.time.YearMonth.of(2024, 1), 1)));
+        assertEquals("[{\"key\":{\"id\":\"P1\",\"name\":\"Pen\",\"category\":\"Office\",\"price\":1.5},"
+                + "\"value\":3}]", Json.toJson(Map.of(new Product("P1", "Pen", "Office", 1.5), 3)));
+    }
+}
@@ -0,0 +1,99 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for RevenueKernels. The vector kernels are checked against the
+ * scalar ones; surefire starts the JVM with the incubator module.
+ *
+ * Run with: mvn test -Dtest=RevenueKernelsTest
+ */
+class RevenueKernelsTest {
+
+    private static final int ITEMS = 1_003;   // not a multiple of any vector length
+
+    private double[] price;
+    private int[] quantity;
+    private boolean[] include;
+
+    @BeforeEach
+    void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        price = new double[ITEMS];
+        quantity = new int[ITEMS];
+        include = new boolean[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            price[i] = random.nextInt(100_000) / 100.0;
+            quantity[i] = 1 + random.nextInt(5);
+            include[i] = random.nextInt(10) < 6;
+        }
+    }
+
+    private double expectedSum(int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            if (include[i]) {
+                sum += price[i] * quantity[i];
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    @DisplayName("Scalar kernels sum and write masked line totals")
+    void testScalar() {
+        RevenueKernels scalar = RevenueKernels.scalar();
+        assertEquals(expectedSum(0, ITEMS), scalar.sum(price, quantity, include, 0, ITEMS));
+
+        double[] out = new double[10];
+        scalar.lineTotals(price, quantity, include, 5, 15, out);
+        for (int i = 5; i < 15; i++) {
+            assertEquals(include[i] ? price[i] * quantity[i] : 0, out[i - 5]);
+        }
+    }
+
+    @Test
+    @DisplayName("Vector kernels match the scalar ones, including the tail")
+    void testVector() {
+        Optional<RevenueKernels> vector = RevenueKernels.vector();
+        assumeTrue(vector.isPresent(), "jdk.incubator.vector not available");
+        RevenueKernels kernels = vector.get();
+
+        for (int from : new int[] {0, 1, 3}) {
+            for (int to : new int[] {from, from + 1, from + 7, ITEMS}) {
+                assertEquals(expectedSum(from, to), kernels.sum(price, quantity, include, from, to), 1e-6);
+
+                double[] expected = new double[to - from];
+                double[] actual = new double[to - from];
+                RevenueKernels.scalar().lineTotals(price, quantity, include, from, to, expected);
+                kernels.lineTotals(price, quantity, include, from, to, actual);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("best() prefers the vector kernels")
+    void testBest() {
+        assertEquals(RevenueKernels.vector().orElse(RevenueKernels.scalar()), RevenueKernels.best());
+        assertEquals("scalar", RevenueKernels.scalar().name());
+    }
+
+    @Test
+    @DisplayName("OrderColumns gives the same revenue with either kernels")
+    void testOrderColumns() {
+        StreamHomework hw = new StreamHomework();
+        OrderColumns scalar = hw.toColumns().withKernels(RevenueKernels.scalar());
+        OrderColumns best = scalar.withKernels(RevenueKernels.best());
+
+        assertEquals(hw.getTotalRevenue(), scalar.getTotalRevenue(), 1e-6);
+        assertEquals(scalar.getTotalRevenue(), best.getTotalRevenue(), 1e-6);
+        assertEquals(scalar.getAverageOrderValue(), best.getAverageOrderValue(), 1e-6);
+        scalar.getRevenueByCategory().forEach((category, revenue) ->
+                assertEquals(revenue, best.getRevenueByCategory().get(category), 1e-6, category));
+    }
+}
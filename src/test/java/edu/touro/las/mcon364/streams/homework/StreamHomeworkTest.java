@@ -196,4 +196,20 @@ class StreamHomeworkTest {
         counts.values().forEach(count -> 
             assertEquals(1L, count, "Each date should have exactly 1 order"));
     }
+    
+    @Test
+    @DisplayName("CustomerOrder copies its items and rejects totals that do not match them")
+    void testCustomerOrderTotals() {
+        Product pen = new Product("P9", "Pen", "Office", 2.0);
+        List<OrderItem> items = new ArrayList<>(List.of(new OrderItem(pen, 3)));
+        CustomerOrder order = new CustomerOrder("O900", "C001", items, LocalDate.of(2024, 3, 1), OrderStatus.PENDING);
+        items.add(new OrderItem(pen, 10));
+        
+        assertEquals(6.0, order.getTotal(), 1e-9);
+        assertEquals(1, order.items().size());
+        assertThrows(UnsupportedOperationException.class, () -> order.items().add(new OrderItem(pen, 1)));
+        assertEquals(order.totals(), order.withStatus(OrderStatus.SHIPPED).totals());
+        assertThrows(IllegalArgumentException.class, () -> new CustomerOrder("O901", "C001", order.items(),
+                order.orderDate(), OrderStatus.PENDING, new OrderTotals(1.0, 1, 3)));
+    }
 }
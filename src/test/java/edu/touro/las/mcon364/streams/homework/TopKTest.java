@@ -0,0 +1,65 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for TopK. Selections are checked against a full sort.
+ *
+ * Run with: mvn test -Dtest=TopKTest
+ */
+class TopKTest {
+
+    @Test
+    @DisplayName("Top k matches sort-then-limit")
+    void testMatchesSort() {
+        Random random = new Random(11);
+        List<Integer> values = random.ints(50_000, 0, 1_000_000).boxed().toList();
+        for (int k : new int[] {0, 1, 10, 1000, 60_000}) {
+            List<Integer> expected = values.stream().sorted(Comparator.reverseOrder()).limit(k).toList();
+            assertEquals(expected, values.stream().collect(TopK.collector(k, Comparator.reverseOrder())), "k=" + k);
+            assertEquals(expected, values.parallelStream().collect(TopK.collector(k, Comparator.reverseOrder())),
+                    "parallel k=" + k);
+        }
+    }
+
+    @Test
+    @DisplayName("Ties on value are broken by ascending key")
+    void testTieBreak() {
+        Map<String, Double> revenue = Map.of("C3", 10.0, "C1", 10.0, "C2", 20.0, "C4", 5.0, "C0", 10.0);
+        assertEquals(List.of("C2", "C0", "C1"), revenue.entrySet().stream().collect(TopK.keysByValue(3)));
+        assertEquals(List.of("C2", "C0", "C1", "C3", "C4"), revenue.entrySet().stream().collect(TopK.keysByValue(9)));
+    }
+
+    @Test
+    @DisplayName("Works on the entries of a concurrent grouping")
+    void testParallelGrouping() {
+        Map<Integer, Long> counts = IntStream.range(0, 100_000).parallel().boxed()
+                .collect(Collectors.groupingByConcurrent(i -> i % 1000 % 37, Collectors.counting()));
+        List<Integer> expected = counts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .toList();
+        assertEquals(expected, counts.entrySet().parallelStream().collect(TopK.keysByValue(5)));
+    }
+
+    @Test
+    @DisplayName("StreamHomework and OrderColumns agree on ties")
+    void testHomeworkTies() {
+        StreamHomework hw = new StreamHomework();
+        OrderColumns columns = hw.toColumns();
+        assertEquals(hw.getTopSellingProducts(10), columns.getTopSellingProducts(10));
+        assertEquals(hw.getTopCustomers(10), columns.getTopCustomers(10));
+    }
+
+    @Test
+    @DisplayName("Negative k is rejected")
+    void testNegativeK() {
+        assertThrows(IllegalArgumentException.class, () -> TopK.collector(-1, Comparator.<Integer>naturalOrder()));
+    }
+}
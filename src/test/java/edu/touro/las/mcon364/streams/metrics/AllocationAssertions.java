@@ -0,0 +1,69 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Allocation checks built on the per-thread allocation counter of
+ * com.sun.management.ThreadMXBean, shared by the allocation regression
+ * tests. Tests are skipped (not failed) on JVMs without the counter.
+ */
+public final class AllocationAssertions {
+
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 5;
+
+    private AllocationAssertions() {
+    }
+
+    /**
+     * Skips the calling test unless thread allocation counters are available and enabled.
+     */
+    public static void assumeAllocationCounters() {
+        threads();
+    }
+
+    /**
+     * Runs a query on a small and a large input (after a warm-up) and
+     * asserts that the extra bytes it allocates on the large one, spread
+     * over the extra elements, stay below maxBytesPerElement.
+     *
+     * @param element what an element is, for the failure message (e.g. "order")
+     */
+    public static void assertAllocationPerElementBelow(double maxBytesPerElement, String element, int extraElements,
+                                                       Supplier<?> smallQuery, Supplier<?> largeQuery) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            smallQuery.get();
+            largeQuery.get();
+        }
+        long extra = fewestAllocatedBytes(largeQuery) - fewestAllocatedBytes(smallQuery);
+        double perElement = (double) extra / extraElements;
+        assertTrue(perElement < maxBytesPerElement, "allocated " + perElement + " bytes per " + element);
+    }
+
+    /**
+     * Fewest bytes the query allocated on this thread over a few runs.
+     */
+    public static long fewestAllocatedBytes(Supplier<?> query) {
+        com.sun.management.ThreadMXBean threads = threads();
+        long fewest = Long.MAX_VALUE;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            query.get();
+            fewest = Math.min(fewest, threads.getCurrentThreadAllocatedBytes() - before);
+        }
+        return fewest;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "thread allocation counters not available");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "thread allocation counters not enabled");
+        return threads;
+    }
+}
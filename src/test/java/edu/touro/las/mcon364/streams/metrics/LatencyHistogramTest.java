@@ -0,0 +1,63 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram.
+ *
+ * Run with: mvn test -Dtest=LatencyHistogramTest
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Buckets are contiguous and cover every value up to MAX_NANOS")
+    void testBuckets() {
+        int last = LatencyHistogram.index(LatencyHistogram.MAX_NANOS);
+        for (int i = 0; i < last; i++) {
+            assertEquals(LatencyHistogram.highestValue(i) + 1, LatencyHistogram.lowestValue(i + 1));
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.lowestValue(i)));
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.highestValue(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Reported values are within ~3% above the recorded ones")
+    void testPrecision() {
+        for (long value = 1; value < LatencyHistogram.MAX_NANOS; value = value * 3 + 1) {
+            long reported = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+            assertTrue(reported >= value && reported <= value * 1.032, value + " → " + reported);
+        }
+    }
+
+    @Test
+    @DisplayName("Percentiles of a uniform distribution")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_000, snapshot.p50(), 500_000 * 0.032);
+        assertEquals(990_000, snapshot.p99(), 990_000 * 0.032);
+        assertEquals(999_000, snapshot.p999(), 999_000 * 0.032);
+        assertEquals(1_000_000, snapshot.max(), 1_000_000 * 0.032);
+        assertEquals(500_500, snapshot.mean(), 500_500 * 0.032);
+    }
+
+    @Test
+    @DisplayName("Out-of-range values are clamped and an empty snapshot reports zeros")
+    void testEdges() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().p99());
+        assertEquals(0.0, histogram.snapshot().mean());
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.valueAtPercentile(0));
+        assertTrue(snapshot.max() >= LatencyHistogram.MAX_NANOS);
+    }
+}
@@ -0,0 +1,144 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Unit tests for the JFR events (QueryEvent, StageEvent) and SlowQueryMonitor.
+ *
+ * Run with: mvn test -Dtest=QueryEventTest
+ */
+class QueryEventTest {
+
+    /**
+     * Runs the action under a recording stream with the given events enabled
+     * and returns the events recorded, after the stream has flushed.
+     */
+    private static List<RecordedEvent> record(Runnable action, String... events) {
+        List<RecordedEvent> recorded = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            for (String event : events) {
+                stream.enable(event);
+                stream.onEvent(event, recorded::add);
+            }
+            stream.startAsync();
+            action.run();
+            stream.stop();
+        }
+        return recorded;
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String method) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> method.equals(event.getString("method")))
+                .toList();
+        assertEquals(1, matching.size(), "events for " + method);
+        return matching.get(0);
+    }
+
+    @Test
+    @DisplayName("StreamHomework queries emit a QueryEvent with arguments and row counts")
+    void testStreamHomeworkEvents() {
+        StreamHomework hw = new StreamHomework();
+        StreamHomework empty = new StreamHomework(List.of(), List.of());
+        List<RecordedEvent> events = record(() -> {
+            hw.getTopCustomers(3);
+            hw.getTotalRevenue();
+            assertThrows(NoSuchElementException.class, empty::getAverageOrderValue);
+        }, QueryEvent.NAME);
+
+        RecordedEvent top = only(events, "getTopCustomers");
+        assertEquals("StreamHomework", top.getString("source"));
+        assertEquals("3", top.getString("arguments"));
+        assertEquals(10, top.getLong("rowsIn"));
+        assertEquals(3, top.getLong("rowsOut"));
+        assertFalse(top.getBoolean("failed"));
+        assertFalse(top.getDuration().isNegative());
+
+        RecordedEvent revenue = only(events, "getTotalRevenue");
+        assertEquals("", revenue.getString("arguments"));
+        assertEquals(1, revenue.getLong("rowsOut"));
+
+        RecordedEvent failed = only(events, "getAverageOrderValue");
+        assertTrue(failed.getBoolean("failed"));
+        assertEquals(0, failed.getLong("rowsOut"));
+    }
+
+    @Test
+    @DisplayName("StreamExercise queries emit a QueryEvent through QueryMetrics.time")
+    void testStreamExerciseEvents() {
+        StreamExercise exercise = new StreamExercise();
+        List<RecordedEvent> events = record(() -> exercise.getPassingStudents(80), QueryEvent.NAME);
+
+        RecordedEvent passing = only(events, "getPassingStudents");
+        assertEquals("StreamExercise", passing.getString("source"));
+        assertEquals("80.0", passing.getString("arguments"));
+        assertEquals(8, passing.getLong("rowsIn"));
+        assertEquals(4, passing.getLong("rowsOut"));
+    }
+
+    @Test
+    @DisplayName("Stage events are off by default and recorded when enabled")
+    void testStageEvents() {
+        StreamHomework hw = new StreamHomework();
+        List<RecordedEvent> events = record(hw::getRevenueByCategory, StageEvent.NAME);
+
+        List<String> stages = events.stream().map(event -> event.getString("stage")).toList();
+        assertEquals(List.of("totalsBy", "decode"), stages);
+        assertEquals(10, events.get(0).getLong("rowsIn"));
+        assertEquals(hw.getRevenueByCategory().size(), events.get(1).getLong("rowsOut"));
+
+        assertFalse(jdk.jfr.EventType.getEventType(StageEvent.class).isEnabled());
+    }
+
+    @Test
+    @DisplayName("SlowQueryMonitor reports queries over the threshold")
+    void testSlowQueryMonitor() throws Exception {
+        StreamHomework hw = new StreamHomework();
+        BlockingQueue<SlowQueryMonitor.SlowQuery> slow = new LinkedBlockingQueue<>();
+        try (SlowQueryMonitor monitor = SlowQueryMonitor.start(Duration.ZERO, slow::add)) {
+            // Events of calls made before the stream is running are not delivered
+            SlowQueryMonitor.SlowQuery query = null;
+            for (int attempt = 0; attempt < 100 && query == null; attempt++) {
+                hw.getCategorySummary();
+                query = slow.poll(100, TimeUnit.MILLISECONDS);
+            }
+            assertNotNull(query, "no slow query reported");
+            assertEquals("getCategorySummary", query.method());
+            assertTrue(query.toString().startsWith("StreamHomework.getCategorySummary() took"), query.toString());
+            assertTrue(monitor.flagged() >= 1);
+            assertEquals(Duration.ZERO, monitor.threshold());
+        }
+    }
+
+    @Test
+    @DisplayName("SlowQueryMonitor leaves out queries under the threshold while another recording runs")
+    void testSlowQueryMonitorThreshold() throws Exception {
+        StreamHomework hw = new StreamHomework();
+        BlockingQueue<SlowQueryMonitor.SlowQuery> slow = new LinkedBlockingQueue<>();
+        BlockingQueue<SlowQueryMonitor.SlowQuery> all = new LinkedBlockingQueue<>();
+        try (SlowQueryMonitor everything = SlowQueryMonitor.start(Duration.ZERO, all::add);
+             SlowQueryMonitor monitor = SlowQueryMonitor.start(Duration.ofHours(1), slow::add)) {
+            SlowQueryMonitor.SlowQuery query = null;
+            for (int attempt = 0; attempt < 100 && query == null; attempt++) {
+                hw.getTotalRevenue();
+                query = all.poll(100, TimeUnit.MILLISECONDS);
+            }
+            assertNotNull(query, "no query reported at threshold zero");
+            // The hour-long monitor's stream received the same events; give it time to deliver
+            Thread.sleep(1_500);
+            assertTrue(slow.isEmpty(), slow.toString());
+            assertEquals(0, monitor.flagged());
+        }
+    }
+}
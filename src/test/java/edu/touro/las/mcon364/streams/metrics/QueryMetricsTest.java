@@ -0,0 +1,91 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Unit tests for QueryMetrics and the metrics of StreamHomework and StreamExercise.
+ *
+ * Run with: mvn test -Dtest=QueryMetricsTest
+ */
+class QueryMetricsTest {
+
+    @Test
+    @DisplayName("time records calls, rows, errors and latency")
+    void testTime() {
+        QueryMetrics metrics = new QueryMetrics();
+        assertEquals("x", metrics.time("q", 10, () -> "x"));
+        metrics.time("q", 5, () -> "y");
+        assertThrows(IllegalStateException.class, () -> metrics.time("q", 1, () -> {
+            throw new IllegalStateException();
+        }));
+
+        QuerySnapshot snapshot = metrics.snapshot("q").orElseThrow();
+        assertEquals(3, snapshot.calls());
+        assertEquals(1, snapshot.errors());
+        assertEquals(16, snapshot.rows());
+        assertEquals(3, snapshot.latency().count());
+        assertTrue(snapshot.toString().startsWith("q: 3 calls, 1 errors, 16 rows"), snapshot.toString());
+        assertTrue(metrics.snapshot("other").isEmpty());
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no calls")
+    void testConcurrent() throws Exception {
+        QueryMetrics metrics = new QueryMetrics();
+        try (ExecutorService threads = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                threads.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        metrics.query("q").record(i, 1, false);
+                    }
+                });
+            }
+        }
+        assertEquals(40_000, metrics.snapshot("q").orElseThrow().calls());
+        assertEquals(40_000, metrics.snapshot("q").orElseThrow().rows());
+    }
+
+    @Test
+    @DisplayName("StreamHomework records each query by method name")
+    void testStreamHomework() {
+        StreamHomework hw = new StreamHomework();
+        hw.getTotalRevenue();
+        hw.getTotalRevenue();
+        hw.getTopCustomers(3);
+
+        Map<String, QuerySnapshot> snapshot = hw.getMetrics().snapshot();
+        assertEquals(Set.of("getTotalRevenue", "getTopCustomers"), snapshot.keySet());
+        assertEquals(2, snapshot.get("getTotalRevenue").calls());
+        assertEquals(20, snapshot.get("getTotalRevenue").rows());   // 10 sample orders per call
+        assertTrue(snapshot.get("getTotalRevenue").latency().max() > 0);
+
+        StreamHomework empty = new StreamHomework(List.of(), List.of());
+        assertThrows(NoSuchElementException.class, empty::getAverageOrderValue);
+        assertEquals(1, empty.getMetrics().snapshot("getAverageOrderValue").orElseThrow().errors());
+    }
+
+    @Test
+    @DisplayName("StreamExercise records each query by method name")
+    void testStreamExercise() {
+        StreamExercise exercise = new StreamExercise();
+        exercise.findTopPerformer();
+        exercise.calculateAverage("Alice");
+        exercise.getClassStatistics();
+
+        Map<String, QuerySnapshot> snapshot = exercise.getMetrics().snapshot();
+        assertEquals(Set.of("findTopPerformer", "calculateAverage", "getClassStatistics"), snapshot.keySet());
+        assertEquals(8, snapshot.get("findTopPerformer").rows());
+        assertEquals(1, snapshot.get("calculateAverage").rows());
+        assertEquals(40, snapshot.get("getClassStatistics").rows());
+    }
+}